@@ -0,0 +1,9 @@
+#!/bin/sh
+# Launches the extracted fast-start build with its CDS archive and AOT-generated initializers.
+# The JVM must be the same one that produced application.jsa, otherwise the archive is ignored.
+cd "$(dirname "$0")"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+exec "$JAVA" -XX:SharedArchiveFile=application.jsa \
+    -Dspring.aot.enabled=true \
+    -Dspring.profiles.active=fast-start \
+    -jar @project.build.finalName@.jar "$@"
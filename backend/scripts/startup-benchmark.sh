@@ -0,0 +1,67 @@
+#!/usr/bin/env bash
+# Measures time from JVM launch to the first successful GET /api/products.
+#
+# Usage: scripts/startup-benchmark.sh [jar|fast-start|native] [runs]
+#   jar         target/demo-0.0.1-SNAPSHOT.jar            (./mvnw package)
+#   fast-start  target/application/run.sh (AOT + CDS)     (./mvnw -Pfast-start package)
+#   native      target/demo                               (./mvnw -Pnative native:compile)
+#
+# The endpoint requires a bearer token with a realm role; pass one through BENCH_TOKEN.
+# The app must be able to verify it, i.e. Keycloak or a stub JWKS has to be reachable.
+set -euo pipefail
+
+MODE="${1:-jar}"
+RUNS="${2:-5}"
+PORT="${BENCH_PORT:-8080}"
+URL="http://localhost:${PORT}/api/products"
+TIMEOUT_SECONDS="${BENCH_TIMEOUT:-120}"
+BACKEND_DIR="$(cd "$(dirname "$0")/.." && pwd)"
+JAVA="${JAVA_HOME:+$JAVA_HOME/bin/}java"
+
+if [[ -z "${BENCH_TOKEN:-}" ]]; then
+    echo "BENCH_TOKEN is not set" >&2
+    exit 1
+fi
+
+case "$MODE" in
+    jar)        CMD=("$JAVA" -jar "$BACKEND_DIR/target/demo-0.0.1-SNAPSHOT.jar") ;;
+    fast-start) CMD=(sh "$BACKEND_DIR/target/application/run.sh") ;;
+    native)     CMD=("$BACKEND_DIR/target/demo") ;;
+    *)          echo "Unknown mode: $MODE" >&2; exit 1 ;;
+esac
+
+now_ms() {
+    echo $(( $(date +%s%N) / 1000000 ))
+}
+
+results=()
+for run in $(seq 1 "$RUNS"); do
+    start=$(now_ms)
+    "${CMD[@]}" --server.port="$PORT" > "/tmp/startup-benchmark-$run.log" 2>&1 &
+    pid=$!
+
+    elapsed=""
+    deadline=$(( start + TIMEOUT_SECONDS * 1000 ))
+    while (( $(now_ms) < deadline )); do
+        status=$(curl -s -o /dev/null -w '%{http_code}' -H "Authorization: Bearer $BENCH_TOKEN" "$URL" || true)
+        if [[ "$status" == "200" ]]; then
+            elapsed=$(( $(now_ms) - start ))
+            break
+        fi
+        sleep 0.05
+    done
+
+    kill "$pid" 2>/dev/null || true
+    wait "$pid" 2>/dev/null || true
+
+    if [[ -z "$elapsed" ]]; then
+        echo "run $run: no successful response within ${TIMEOUT_SECONDS}s (see /tmp/startup-benchmark-$run.log)" >&2
+        exit 1
+    fi
+    echo "run $run: ${elapsed} ms"
+    results+=("$elapsed")
+done
+
+printf '%s\n' "${results[@]}" | sort -n | awk -v mode="$MODE" '
+    { v[NR] = $1; sum += $1 }
+    END { printf "%s: runs=%d min=%d median=%d mean=%d max=%d (ms)\n", mode, NR, v[1], v[int((NR + 1) / 2)], sum / NR, v[NR] }'
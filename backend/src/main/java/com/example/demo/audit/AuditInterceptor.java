@@ -0,0 +1,125 @@
+package com.example.demo.audit;
+
+import com.example.demo.dto.OrderDto;
+import com.example.demo.dto.OrderSearchHitDto;
+import com.example.demo.dto.ProductBrowseDto;
+import com.example.demo.dto.ProductDto;
+import com.example.demo.dto.ReportJobDto;
+import com.example.demo.security.UserAccess;
+import com.example.demo.security.UserContext;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.RequiredArgsConstructor;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.core.AuthenticationException;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+// Builds an audit record for every call to an audited controller and hands it to the ring buffer. Entity ids
+// come from the {id} path variable and from the response body captured by AuditResponseBodyAdvice.
+@RequiredArgsConstructor
+public class AuditInterceptor implements HandlerInterceptor {
+    
+    static final String RESPONSE_BODY_ATTRIBUTE = AuditInterceptor.class.getName() + ".responseBody";
+    private static final String START_ATTRIBUTE = AuditInterceptor.class.getName() + ".start";
+    
+    private final RingBuffer<AuditRecord> buffer;
+    private final Map<Class<?>, String> entityTypes;
+    private final int maxEntityIds;
+    
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (handler instanceof HandlerMethod handlerMethod && entityTypes.containsKey(handlerMethod.getBeanType())) {
+            request.setAttribute(START_ATTRIBUTE, System.nanoTime());
+        }
+        return true;
+    }
+    
+    @Override
+    public void afterCompletion(HttpServletRequest request, HttpServletResponse response, Object handler, Exception ex) {
+        if (!(request.getAttribute(START_ATTRIBUTE) instanceof Long start)
+                || !(handler instanceof HandlerMethod handlerMethod)) {
+            return;
+        }
+        long latencyMicros = (System.nanoTime() - start) / 1_000;
+        
+        // Ids are kept as strings since report jobs are identified by UUIDs
+        List<String> entityIds = new ArrayList<>();
+        if (request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE) instanceof Map<?, ?> variables
+                && variables.get("id") instanceof String id) {
+            entityIds.add(id);
+        }
+        Integer resultCount = collectIds(request.getAttribute(RESPONSE_BODY_ATTRIBUTE), entityIds);
+        
+        UserContext user = UserAccess.getUserContext(SecurityContextHolder.getContext().getAuthentication());
+        buffer.offer(new AuditRecord(
+                Instant.now(),
+                user != null ? user.getSubject() : null,
+                user != null ? user.getUsername() : null,
+                request.getRemoteAddr(),
+                request.getMethod(),
+                request.getRequestURI(),
+                (String) request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE),
+                handlerMethod.getBeanType().getSimpleName() + "." + handlerMethod.getMethod().getName(),
+                entityTypes.get(handlerMethod.getBeanType()),
+                entityIds,
+                resultCount,
+                statusOf(ex, response),
+                latencyMicros,
+                ex != null ? ex.getClass().getSimpleName() + ": " + ex.getMessage() : null));
+    }
+    
+    // An exception that escapes the handler leaves the response status unset; the security filters turn the
+    // ones they handle into 401 and 403, anything else becomes a 500
+    private static int statusOf(Exception ex, HttpServletResponse response) {
+        if (ex == null || response.getStatus() >= 400) {
+            return response.getStatus();
+        }
+        return switch (ex) {
+            case AuthenticationException e -> HttpServletResponse.SC_UNAUTHORIZED;
+            case AccessDeniedException e -> HttpServletResponse.SC_FORBIDDEN;
+            default -> HttpServletResponse.SC_INTERNAL_SERVER_ERROR;
+        };
+    }
+    
+    // Adds the ids of the returned orders, products or report jobs; returns the number of results for
+    // collection responses
+    private Integer collectIds(Object body, List<String> entityIds) {
+        if (body instanceof ProductBrowseDto browse) {
+            body = browse.getProducts();
+        }
+        if (body instanceof Collection<?> results) {
+            for (Object result : results) {
+                if (entityIds.size() >= maxEntityIds) {
+                    break;
+                }
+                addId(result, entityIds);
+            }
+            return results.size();
+        }
+        addId(body, entityIds);
+        return null;
+    }
+    
+    private void addId(Object result, List<String> entityIds) {
+        Object id = switch (result) {
+            case OrderDto order -> order.getId();
+            case ProductDto product -> product.getId();
+            case OrderSearchHitDto hit -> hit.getOrder() != null ? hit.getOrder().getId() : null;
+            case ReportJobDto job -> job.getId();
+            case Map<?, ?> fields when fields.get("id") instanceof Number number -> number.longValue();
+            case null, default -> null;
+        };
+        if (id != null && !entityIds.contains(id.toString())) {
+            entityIds.add(id.toString());
+        }
+    }
+}
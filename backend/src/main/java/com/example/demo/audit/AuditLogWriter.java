@@ -0,0 +1,184 @@
+package com.example.demo.audit;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.BufferedOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.UncheckedIOException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.locks.LockSupport;
+
+// Background consumer of the audit ring buffer. A single daemon thread drains records in batches, appends them as
+// JSON lines to the current file and flushes once per batch; request threads never touch the file system.
+@Slf4j
+public class AuditLogWriter implements AutoCloseable {
+    
+    private static final String PREFIX = "audit-";
+    private static final String SUFFIX = ".log";
+    
+    private final RingBuffer<AuditRecord> buffer;
+    private final AuditProperties properties;
+    private final ObjectMapper objectMapper;
+    private final Thread thread;
+    private volatile boolean running = true;
+    
+    private OutputStream out;
+    private LocalDate fileDate;
+    private int fileIndex;
+    private long fileSize;
+    private long droppedReported;
+    private volatile long written;
+    private volatile long failed;
+    
+    public AuditLogWriter(RingBuffer<AuditRecord> buffer, AuditProperties properties, ObjectMapper objectMapper) {
+        this.buffer = buffer;
+        this.properties = properties;
+        this.objectMapper = objectMapper;
+        try {
+            Files.createDirectories(properties.getDirectory());
+        } catch (IOException e) {
+            throw new UncheckedIOException("Cannot create audit log directory " + properties.getDirectory(), e);
+        }
+        this.thread = Thread.ofPlatform().name("audit-writer").daemon().start(this::run);
+    }
+    
+    public Map<String, Object> getStatus() {
+        return Map.of(
+                "directory", properties.getDirectory().toAbsolutePath().toString(),
+                "bufferCapacity", buffer.capacity(),
+                "written", written,
+                "dropped", buffer.getDropped(),
+                "failed", failed);
+    }
+    
+    // Stops the consumer after it has written whatever is still buffered
+    @Override
+    public void close() {
+        running = false;
+        LockSupport.unpark(thread);
+        try {
+            thread.join(5_000);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+    
+    private void run() {
+        List<AuditRecord> batch = new ArrayList<>(properties.getBatchSize());
+        while (running) {
+            if (buffer.drainTo(batch, properties.getBatchSize()) == 0) {
+                LockSupport.parkNanos(properties.getIdleWait().toNanos());
+                continue;
+            }
+            write(batch);
+            batch.clear();
+            reportDropped();
+        }
+        while (buffer.drainTo(batch, properties.getBatchSize()) > 0) {
+            write(batch);
+            batch.clear();
+        }
+        reportDropped();
+        closeFile();
+    }
+    
+    private void write(List<AuditRecord> batch) {
+        try {
+            for (AuditRecord record : batch) {
+                byte[] line = objectMapper.writeValueAsBytes(record);
+                rollIfNeeded(record.timestamp().atZone(ZoneOffset.UTC).toLocalDate(), line.length + 1);
+                out.write(line);
+                out.write('\n');
+                fileSize += line.length + 1;
+            }
+            out.flush();
+            written += batch.size();
+        } catch (IOException e) {
+            failed += batch.size();
+            log.warn("Failed to write {} audit records to {}", batch.size(), properties.getDirectory(), e);
+            closeFile();
+        }
+    }
+    
+    private void reportDropped() {
+        long dropped = buffer.getDropped();
+        if (dropped > droppedReported) {
+            log.warn("Audit buffer full, dropped {} records ({} in total)", dropped - droppedReported, dropped);
+            droppedReported = dropped;
+        }
+    }
+    
+    // Records are dated in UTC; a new file starts on a new day or when the next line would exceed max-file-size
+    private void rollIfNeeded(LocalDate date, int length) throws IOException {
+        if (out != null && date.equals(fileDate) && fileSize + length <= properties.getMaxFileSize().toBytes()) {
+            return;
+        }
+        closeFile();
+        if (!date.equals(fileDate)) {
+            fileDate = date;
+            fileIndex = lastIndexOf(date);
+        }
+        Path file = fileFor(date, fileIndex);
+        if (Files.exists(file) && Files.size(file) + length > properties.getMaxFileSize().toBytes()) {
+            file = fileFor(date, ++fileIndex);
+        }
+        out = new BufferedOutputStream(Files.newOutputStream(file, StandardOpenOption.CREATE, StandardOpenOption.APPEND), 64 * 1024);
+        fileSize = Files.size(file);
+        deleteOldFiles();
+    }
+    
+    // Continues the newest file of the day after a restart instead of starting over at index 0
+    private int lastIndexOf(LocalDate date) throws IOException {
+        int last = 0;
+        String prefix = PREFIX + date + ".";
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(properties.getDirectory(), prefix + "*" + SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                try {
+                    last = Math.max(last, Integer.parseInt(name.substring(prefix.length(), name.length() - SUFFIX.length())));
+                } catch (NumberFormatException e) {
+                    // not one of ours
+                }
+            }
+        }
+        return last;
+    }
+    
+    private Path fileFor(LocalDate date, int index) {
+        return properties.getDirectory().resolve(PREFIX + date + "." + String.format("%03d", index) + SUFFIX);
+    }
+    
+    // File names sort by date and index, so the oldest files come first
+    private void deleteOldFiles() throws IOException {
+        List<Path> files = new ArrayList<>();
+        try (DirectoryStream<Path> stream = Files.newDirectoryStream(properties.getDirectory(), PREFIX + "*" + SUFFIX)) {
+            stream.forEach(files::add);
+        }
+        files.sort(null);
+        for (int i = 0; i < files.size() - properties.getMaxFiles(); i++) {
+            Files.deleteIfExists(files.get(i));
+        }
+    }
+    
+    private void closeFile() {
+        if (out == null) {
+            return;
+        }
+        try {
+            out.close();
+        } catch (IOException e) {
+            log.warn("Failed to close audit log", e);
+        }
+        out = null;
+    }
+}
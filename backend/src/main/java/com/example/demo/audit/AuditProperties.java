@@ -0,0 +1,28 @@
+package com.example.demo.audit;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.util.unit.DataSize;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.audit")
+public class AuditProperties {
+    
+    private boolean enabled = true;
+    
+    // Files are named audit-<date>.<n>.log; a new one starts each day and whenever max-file-size is reached
+    private Path directory = Path.of("logs", "audit");
+    private DataSize maxFileSize = DataSize.ofMegabytes(50);
+    private int maxFiles = 20;
+    
+    // Records that find the buffer full are dropped (and counted) rather than blocking the request
+    private int bufferCapacity = 16_384;
+    private int batchSize = 512;
+    private Duration idleWait = Duration.ofMillis(50);
+    
+    // List responses record their size and at most this many entity ids
+    private int maxEntityIds = 100;
+}
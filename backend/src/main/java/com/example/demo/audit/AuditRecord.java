@@ -0,0 +1,22 @@
+package com.example.demo.audit;
+
+import java.time.Instant;
+import java.util.List;
+
+// One audited controller call, written as a JSON line
+public record AuditRecord(
+        Instant timestamp,
+        String subject,
+        String username,
+        String remoteAddress,
+        String method,
+        String path,
+        String endpoint,
+        String handler,
+        String entityType,
+        List<String> entityIds,
+        Integer resultCount,
+        int status,
+        long latencyMicros,
+        String error) {
+}
@@ -0,0 +1,36 @@
+package com.example.demo.audit;
+
+import com.example.demo.controller.OrderController;
+import com.example.demo.controller.ProductController;
+import com.example.demo.controller.ReportController;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.core.MethodParameter;
+import org.springframework.http.MediaType;
+import org.springframework.http.converter.HttpMessageConverter;
+import org.springframework.http.server.ServerHttpRequest;
+import org.springframework.http.server.ServerHttpResponse;
+import org.springframework.http.server.ServletServerHttpRequest;
+import org.springframework.web.bind.annotation.ControllerAdvice;
+import org.springframework.web.servlet.mvc.method.annotation.ResponseBodyAdvice;
+
+// Keeps a reference to the response body of audited controllers so AuditInterceptor can record the entity ids.
+// Registered by component scanning, as MVC only picks up response body advice declared with @ControllerAdvice
+@ControllerAdvice(assignableTypes = {OrderController.class, ProductController.class, ReportController.class})
+@ConditionalOnProperty(name = "app.audit.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditResponseBodyAdvice implements ResponseBodyAdvice<Object> {
+    
+    @Override
+    public boolean supports(MethodParameter returnType, Class<? extends HttpMessageConverter<?>> converterType) {
+        return true;
+    }
+    
+    @Override
+    public Object beforeBodyWrite(Object body, MethodParameter returnType, MediaType selectedContentType,
+                                  Class<? extends HttpMessageConverter<?>> selectedConverterType,
+                                  ServerHttpRequest request, ServerHttpResponse response) {
+        if (request instanceof ServletServerHttpRequest servletRequest) {
+            servletRequest.getServletRequest().setAttribute(AuditInterceptor.RESPONSE_BODY_ATTRIBUTE, body);
+        }
+        return body;
+    }
+}
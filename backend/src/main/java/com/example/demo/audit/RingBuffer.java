@@ -0,0 +1,78 @@
+package com.example.demo.audit;
+
+import java.util.List;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+// Bounded multi-producer, single-consumer ring buffer after Dmitry Vyukov's bounded queue. A producer claims a
+// slot with one CAS on the tail and publishes it through the slot's sequence number, so offer() never blocks or
+// takes a lock. When the consumer falls a full lap behind, offer() drops the item and counts it instead of waiting.
+public class RingBuffer<T> {
+    
+    private final AtomicReferenceArray<T> slots;
+    // Slot i is free for the producer at position p when its sequence is p, and readable when it is p + 1
+    private final AtomicLongArray sequences;
+    private final int mask;
+    private final AtomicLong tail = new AtomicLong();
+    private final LongAdder dropped = new LongAdder();
+    // Only read and written by the consumer thread
+    private long head;
+    
+    public RingBuffer(int capacity) {
+        int size = Integer.highestOneBit(Math.max(2, capacity - 1)) << 1;
+        this.slots = new AtomicReferenceArray<>(size);
+        this.sequences = new AtomicLongArray(size);
+        this.mask = size - 1;
+        for (int i = 0; i < size; i++) {
+            sequences.set(i, i);
+        }
+    }
+    
+    public boolean offer(T item) {
+        long position = tail.get();
+        while (true) {
+            int index = (int) (position & mask);
+            long difference = sequences.get(index) - position;
+            if (difference == 0) {
+                if (tail.compareAndSet(position, position + 1)) {
+                    slots.lazySet(index, item);
+                    sequences.set(index, position + 1);
+                    return true;
+                }
+                position = tail.get();
+            } else if (difference < 0) {
+                dropped.increment();
+                return false;
+            } else {
+                position = tail.get();
+            }
+        }
+    }
+    
+    // Single consumer only: moves up to max published items into the batch and frees their slots
+    public int drainTo(List<T> batch, int max) {
+        int drained = 0;
+        while (drained < max) {
+            int index = (int) (head & mask);
+            if (sequences.get(index) != head + 1) {
+                break;
+            }
+            batch.add(slots.get(index));
+            slots.lazySet(index, null);
+            sequences.set(index, head + mask + 1);
+            head++;
+            drained++;
+        }
+        return drained;
+    }
+    
+    public int capacity() {
+        return mask + 1;
+    }
+    
+    public long getDropped() {
+        return dropped.sum();
+    }
+}
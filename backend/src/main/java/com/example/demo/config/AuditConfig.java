@@ -0,0 +1,57 @@
+package com.example.demo.config;
+
+import com.example.demo.audit.AuditInterceptor;
+import com.example.demo.audit.AuditLogWriter;
+import com.example.demo.audit.AuditProperties;
+import com.example.demo.audit.AuditRecord;
+import com.example.demo.audit.RingBuffer;
+import com.example.demo.controller.OrderController;
+import com.example.demo.controller.ProductController;
+import com.example.demo.controller.ReportController;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Lazy;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+
+import java.util.Map;
+
+@Configuration
+@EnableConfigurationProperties(AuditProperties.class)
+@ConditionalOnProperty(name = "app.audit.enabled", havingValue = "true", matchIfMissing = true)
+public class AuditConfig implements WebMvcConfigurer {
+
+    private final AuditProperties properties;
+
+    public AuditConfig(AuditProperties properties) {
+        this.properties = properties;
+    }
+
+    @Bean
+    public RingBuffer<AuditRecord> auditRingBuffer() {
+        return new RingBuffer<>(properties.getBufferCapacity());
+    }
+
+    // Nothing depends on the writer, so it is created eagerly even under spring.main.lazy-initialization;
+    // otherwise its thread would never start and every record would be dropped
+    @Bean
+    @Lazy(false)
+    public AuditLogWriter auditLogWriter(ObjectMapper objectMapper) {
+        return new AuditLogWriter(auditRingBuffer(), properties, objectMapper);
+    }
+
+    @Bean
+    public AuditInterceptor auditInterceptor() {
+        return new AuditInterceptor(auditRingBuffer(),
+                Map.of(OrderController.class, "order", ProductController.class, "product", ReportController.class, "report"),
+                properties.getMaxEntityIds());
+    }
+
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(auditInterceptor()).addPathPatterns("/api/**");
+    }
+}
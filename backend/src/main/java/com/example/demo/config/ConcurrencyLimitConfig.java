@@ -0,0 +1,31 @@
+package com.example.demo.config;
+
+import com.example.demo.limit.AdaptiveConcurrencyLimitFilter;
+import com.example.demo.limit.ConcurrencyLimitProperties;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.security.SecurityProperties;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ConcurrencyLimitProperties.class)
+@ConditionalOnProperty(name = "app.concurrency-limit.enabled", havingValue = "true", matchIfMissing = true)
+public class ConcurrencyLimitConfig {
+
+    @Bean
+    public AdaptiveConcurrencyLimitFilter adaptiveConcurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        return new AdaptiveConcurrencyLimitFilter(properties);
+    }
+
+    // Ordered right after the Spring Security filter chain, so unauthenticated requests never take a slot
+    @Bean
+    public FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> adaptiveConcurrencyLimitFilterRegistration(
+            AdaptiveConcurrencyLimitFilter filter) {
+        FilterRegistrationBean<AdaptiveConcurrencyLimitFilter> registration = new FilterRegistrationBean<>(filter);
+        registration.addUrlPatterns("/api/*");
+        registration.setOrder(SecurityProperties.DEFAULT_FILTER_ORDER + 1);
+        return registration;
+    }
+}
@@ -3,13 +3,17 @@ package com.example.demo.config;
 import com.example.demo.entity.Product;
 import com.example.demo.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
 import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
 import org.springframework.stereotype.Component;
 
 import java.math.BigDecimal;
 import java.util.Arrays;
 
+@Slf4j
 @Component
+@ConditionalOnProperty(name = "app.data-initializer.enabled", havingValue = "true", matchIfMissing = true)
 @RequiredArgsConstructor
 public class DataInitializer implements CommandLineRunner {
     
@@ -44,6 +48,6 @@ public class DataInitializer implements CommandLineRunner {
         };
         
         productRepository.saveAll(Arrays.asList(products));
-        System.out.println("Sample products initialized successfully!");
+        log.info("Sample products initialized successfully");
     }
 }
@@ -1,8 +1,13 @@
 package com.example.demo.config;
 
+import com.example.demo.jfr.AuthoritiesExtractionEvent;
+import com.example.demo.security.UserAuthenticationToken;
+import com.example.demo.security.UserContext;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
 import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
 import org.springframework.security.config.annotation.method.configuration.EnableMethodSecurity;
 import org.springframework.security.config.annotation.web.builders.HttpSecurity;
 import org.springframework.security.config.annotation.web.configuration.EnableWebSecurity;
@@ -10,7 +15,6 @@ import org.springframework.security.config.http.SessionCreationPolicy;
 import org.springframework.security.core.GrantedAuthority;
 import org.springframework.security.core.authority.SimpleGrantedAuthority;
 import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationConverter;
 import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
 import org.springframework.security.web.SecurityFilterChain;
 import org.springframework.web.cors.CorsConfiguration;
@@ -18,16 +22,24 @@ import org.springframework.web.cors.CorsConfigurationSource;
 import org.springframework.web.cors.UrlBasedCorsConfigurationSource;
 
 import java.util.Collection;
+import java.util.LinkedHashSet;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
-import java.util.stream.Stream;
+import java.util.Set;
+
+import static com.example.demo.security.UserRole.ADMIN;
+import static com.example.demo.security.UserRole.CUSTOMER;
+import static com.example.demo.security.UserRole.EMPLOYEE;
+import static com.example.demo.security.UserRole.MANAGER;
+import static com.example.demo.security.UserRoleAuthorizationManager.hasAnyRole;
 
 @Configuration
 @EnableWebSecurity
 @EnableMethodSecurity(prePostEnabled = true, jsr250Enabled = true)
 public class SecurityConfig {
 
+    private final JwtGrantedAuthoritiesConverter defaultAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+
     @Bean
     public SecurityFilterChain filterChain(HttpSecurity http) throws Exception {
         http
@@ -40,18 +52,18 @@ public class SecurityConfig {
                 .requestMatchers(HttpMethod.GET, "/h2-console/**").permitAll()
                 
                 // API endpoints with role-based access
-                .requestMatchers(HttpMethod.GET, "/api/products/**").hasAnyRole("admin", "manager", "employee", "customer")
-                .requestMatchers(HttpMethod.POST, "/api/products/**").hasAnyRole("admin", "manager")
-                .requestMatchers(HttpMethod.PUT, "/api/products/**").hasAnyRole("admin", "manager")
-                .requestMatchers(HttpMethod.DELETE, "/api/products/**").hasRole("admin")
+                .requestMatchers(HttpMethod.GET, "/api/products/**").access(hasAnyRole(ADMIN, MANAGER, EMPLOYEE, CUSTOMER))
+                .requestMatchers(HttpMethod.POST, "/api/products/**").access(hasAnyRole(ADMIN, MANAGER))
+                .requestMatchers(HttpMethod.PUT, "/api/products/**").access(hasAnyRole(ADMIN, MANAGER))
+                .requestMatchers(HttpMethod.DELETE, "/api/products/**").access(hasAnyRole(ADMIN))
                 
-                .requestMatchers(HttpMethod.GET, "/api/orders/**").hasAnyRole("admin", "manager", "employee")
-                .requestMatchers(HttpMethod.POST, "/api/orders/**").hasAnyRole("admin", "manager", "employee", "customer")
-                .requestMatchers(HttpMethod.PUT, "/api/orders/**").hasAnyRole("admin", "manager", "employee")
-                .requestMatchers(HttpMethod.DELETE, "/api/orders/**").hasRole("admin")
+                .requestMatchers(HttpMethod.GET, "/api/orders/**").access(hasAnyRole(ADMIN, MANAGER, EMPLOYEE))
+                .requestMatchers(HttpMethod.POST, "/api/orders/**").access(hasAnyRole(ADMIN, MANAGER, EMPLOYEE, CUSTOMER))
+                .requestMatchers(HttpMethod.PUT, "/api/orders/**").access(hasAnyRole(ADMIN, MANAGER, EMPLOYEE))
+                .requestMatchers(HttpMethod.DELETE, "/api/orders/**").access(hasAnyRole(ADMIN))
                 
                 // Admin-only endpoints
-                .requestMatchers("/api/admin/**").hasRole("admin")
+                .requestMatchers("/api/admin/**").access(hasAnyRole(ADMIN))
                 
                 // All other requests need authentication
                 .anyRequest().authenticated()
@@ -68,55 +80,56 @@ public class SecurityConfig {
         return http.build();
     }
 
+    // Builds the UserContext once per request; role checks afterwards read its precomputed role bits
     @Bean
-    public JwtAuthenticationConverter jwtAuthenticationConverter() {
-        JwtAuthenticationConverter converter = new JwtAuthenticationConverter();
-        converter.setJwtGrantedAuthoritiesConverter(this::extractAuthorities);
-        converter.setPrincipalClaimName("preferred_username");
-        return converter;
+    public Converter<Jwt, AbstractAuthenticationToken> jwtAuthenticationConverter() {
+        return jwt -> {
+            // Times the whole conversion: claim parsing, authorities and the UserContext
+            AuthoritiesExtractionEvent event = new AuthoritiesExtractionEvent();
+            event.begin();
+            Set<String> roleNames = extractRoleNames(jwt);
+            Collection<GrantedAuthority> authorities = extractAuthorities(jwt, roleNames);
+            UserAuthenticationToken token = new UserAuthenticationToken(jwt, authorities, UserContext.fromJwt(jwt, roleNames));
+            event.setSubject(jwt.getSubject());
+            event.setTokenId(jwt.getId());
+            event.setRoleCount(roleNames.size());
+            event.setAuthorityCount(authorities.size());
+            event.commit();
+            return token;
+        };
     }
 
-    private Collection<GrantedAuthority> extractAuthorities(Jwt jwt) {
-        // Extract roles from realm_access
-        Collection<GrantedAuthority> realmRoles = extractRealmRoles(jwt);
-        
-        // Extract roles from resource_access
-        Collection<GrantedAuthority> resourceRoles = extractResourceRoles(jwt);
+    private Collection<GrantedAuthority> extractAuthorities(Jwt jwt, Set<String> roleNames) {
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        for (String roleName : roleNames) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + roleName));
+        }
         
         // Extract default roles
-        Collection<GrantedAuthority> defaultAuthorities = new JwtGrantedAuthoritiesConverter().convert(jwt);
-        
-        // Combine all authorities
-        return Stream.of(realmRoles, resourceRoles, defaultAuthorities)
-                .flatMap(Collection::stream)
-                .collect(Collectors.toSet());
+        authorities.addAll(defaultAuthoritiesConverter.convert(jwt));
+        return authorities;
     }
 
-    @SuppressWarnings("unchecked")
-    private Collection<GrantedAuthority> extractRealmRoles(Jwt jwt) {
-        Map<String, Object> realmAccess = jwt.getClaimAsMap("realm_access");
-        if (realmAccess != null && realmAccess.containsKey("roles")) {
-            Collection<String> roles = (Collection<String>) realmAccess.get("roles");
-            return roles.stream()
-                    .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                    .collect(Collectors.toList());
+    private Set<String> extractRoleNames(Jwt jwt) {
+        Set<String> roleNames = new LinkedHashSet<>();
+        
+        // Extract roles from realm_access
+        addRoleNames(jwt.getClaimAsMap("realm_access"), roleNames);
+        
+        // Extract roles from resource_access
+        Map<String, Object> resourceAccess = jwt.getClaimAsMap("resource_access");
+        if (resourceAccess != null && resourceAccess.get("ecommerce-backend") instanceof Map<?, ?> clientAccess) {
+            addRoleNames(clientAccess, roleNames);
         }
-        return List.of();
+        return roleNames;
     }
 
-    @SuppressWarnings("unchecked")
-    private Collection<GrantedAuthority> extractResourceRoles(Jwt jwt) {
-        Map<String, Object> resourceAccess = jwt.getClaimAsMap("resource_access");
-        if (resourceAccess != null && resourceAccess.containsKey("ecommerce-backend")) {
-            Map<String, Object> clientAccess = (Map<String, Object>) resourceAccess.get("ecommerce-backend");
-            if (clientAccess.containsKey("roles")) {
-                Collection<String> roles = (Collection<String>) clientAccess.get("roles");
-                return roles.stream()
-                        .map(role -> new SimpleGrantedAuthority("ROLE_" + role.toUpperCase()))
-                        .collect(Collectors.toList());
+    private void addRoleNames(Map<?, ?> access, Set<String> roleNames) {
+        if (access != null && access.get("roles") instanceof Collection<?> roles) {
+            for (Object role : roles) {
+                roleNames.add(role.toString().toUpperCase());
             }
         }
-        return List.of();
     }
 
     @Bean
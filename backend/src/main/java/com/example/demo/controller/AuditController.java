@@ -0,0 +1,26 @@
+package com.example.demo.controller;
+
+import com.example.demo.audit.AuditLogWriter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/audit")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class AuditController {
+    
+    private final ObjectProvider<AuditLogWriter> auditLogWriter;
+    
+    @GetMapping
+    @PreAuthorize("@userAccess.hasRole(authentication, 'admin')")
+    public ResponseEntity<Map<String, Object>> getAuditStatus() {
+        AuditLogWriter writer = auditLogWriter.getIfAvailable();
+        return ResponseEntity.ok(writer != null ? writer.getStatus() : Map.of("enabled", false));
+    }
+}
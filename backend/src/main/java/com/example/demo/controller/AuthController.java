@@ -1,5 +1,7 @@
 package com.example.demo.controller;
 
+import com.example.demo.security.UserContext;
+import com.example.demo.security.UserRole;
 import com.example.demo.service.JwtService;
 import lombok.RequiredArgsConstructor;
 import org.springframework.http.ResponseEntity;
@@ -33,13 +35,14 @@ public class AuthController {
             return ResponseEntity.status(401).build();
         }
 
+        UserContext user = jwtService.getUserContext(authentication);
         Map<String, Object> profile = Map.of(
-            "username", jwtService.getCurrentUsername(authentication),
-            "email", jwtService.getCurrentUserEmail(authentication),
-            "firstName", jwtService.getCurrentUserFirstName(authentication),
-            "lastName", jwtService.getCurrentUserLastName(authentication),
-            "roles", jwtService.getCurrentUserRoles(authentication),
-            "groups", jwtService.getCurrentUserGroups(authentication)
+            "username", user.getUsername(),
+            "email", user.getEmail(),
+            "firstName", user.getFirstName(),
+            "lastName", user.getLastName(),
+            "roles", user.getRoleNames(),
+            "groups", user.getGroups()
         );
 
         return ResponseEntity.ok(profile);
@@ -51,13 +54,14 @@ public class AuthController {
             return ResponseEntity.status(401).build();
         }
 
+        UserContext user = jwtService.getUserContext(authentication);
         Map<String, Object> roles = Map.of(
-            "roles", jwtService.getCurrentUserRoles(authentication),
-            "groups", jwtService.getCurrentUserGroups(authentication),
-            "isAdmin", jwtService.hasRole(authentication, "admin"),
-            "isManager", jwtService.hasRole(authentication, "manager"),
-            "isEmployee", jwtService.hasRole(authentication, "employee"),
-            "isCustomer", jwtService.hasRole(authentication, "customer")
+            "roles", user.getRoleNames(),
+            "groups", user.getGroups(),
+            "isAdmin", user.hasRole(UserRole.ADMIN),
+            "isManager", user.hasRole(UserRole.MANAGER),
+            "isEmployee", user.hasRole(UserRole.EMPLOYEE),
+            "isCustomer", user.hasRole(UserRole.CUSTOMER)
         );
 
         return ResponseEntity.ok(roles);
@@ -77,7 +81,7 @@ public class AuthController {
     }
 
     @GetMapping("/admin/info")
-    @PreAuthorize("hasRole('admin')")
+    @PreAuthorize("@userAccess.hasRole(authentication, 'admin')")
     public ResponseEntity<Map<String, Object>> getAdminInfo(Authentication authentication) {
         Map<String, Object> adminInfo = Map.of(
             "message", "Admin access granted",
@@ -89,7 +93,7 @@ public class AuthController {
     }
 
     @GetMapping("/manager/info")
-    @PreAuthorize("hasAnyRole('admin', 'manager')")
+    @PreAuthorize("@userAccess.hasAnyRole(authentication, 'admin', 'manager')")
     public ResponseEntity<Map<String, Object>> getManagerInfo(Authentication authentication) {
         Map<String, Object> managerInfo = Map.of(
             "message", "Manager access granted",
@@ -101,7 +105,7 @@ public class AuthController {
     }
 
     @GetMapping("/employee/info")
-    @PreAuthorize("hasAnyRole('admin', 'manager', 'employee')")
+    @PreAuthorize("@userAccess.hasAnyRole(authentication, 'admin', 'manager', 'employee')")
     public ResponseEntity<Map<String, Object>> getEmployeeInfo(Authentication authentication) {
         Map<String, Object> employeeInfo = Map.of(
             "message", "Employee access granted",
@@ -0,0 +1,31 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.CacheStatisticsService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/cache")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class CacheAdminController {
+    
+    private final CacheStatisticsService cacheStatisticsService;
+    
+    @GetMapping("/statistics")
+    @PreAuthorize("@userAccess.hasRole(authentication, 'admin')")
+    public ResponseEntity<Map<String, Object>> getCacheStatistics() {
+        return ResponseEntity.ok(cacheStatisticsService.getCacheStatistics());
+    }
+    
+    @DeleteMapping("/statistics")
+    @PreAuthorize("@userAccess.hasRole(authentication, 'admin')")
+    public ResponseEntity<Void> clearCacheStatistics() {
+        cacheStatisticsService.clearStatistics();
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,26 @@
+package com.example.demo.controller;
+
+import com.example.demo.limit.AdaptiveConcurrencyLimitFilter;
+import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/concurrency-limits")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class ConcurrencyLimitController {
+    
+    private final ObjectProvider<AdaptiveConcurrencyLimitFilter> concurrencyLimitFilter;
+    
+    @GetMapping
+    @PreAuthorize("@userAccess.hasRole(authentication, 'admin')")
+    public ResponseEntity<Map<String, Object>> getConcurrencyLimits() {
+        AdaptiveConcurrencyLimitFilter filter = concurrencyLimitFilter.getIfAvailable();
+        return ResponseEntity.ok(filter != null ? filter.getStatus() : Map.of("enabled", false));
+    }
+}
@@ -0,0 +1,84 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.FlightRecorderService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.bind.annotation.*;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.util.Map;
+
+@RestController
+@RequestMapping("/api/admin/jfr")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class FlightRecorderController {
+    
+    private final FlightRecorderService flightRecorderService;
+    
+    @GetMapping
+    @PreAuthorize("@userAccess.hasRole(authentication, 'admin')")
+    public ResponseEntity<Map<String, Object>> getRecordingStatus() {
+        return ResponseEntity.ok(flightRecorderService.getStatus());
+    }
+    
+    @PostMapping("/start")
+    @PreAuthorize("@userAccess.hasRole(authentication, 'admin')")
+    public ResponseEntity<Map<String, Object>> startRecording(
+            @RequestParam(required = false) String settings,
+            @RequestParam(required = false) String maxAge,
+            @RequestParam(required = false) String maxSize) {
+        return ResponseEntity.ok(flightRecorderService.startRecording(settings, parseMaxAge(maxAge), parseMaxSize(maxSize)));
+    }
+    
+    // Streams a snapshot of the running recording; the temporary file is deleted once the response is written
+    @PostMapping("/dump")
+    @PreAuthorize("@userAccess.hasRole(authentication, 'admin')")
+    public ResponseEntity<Resource> dumpRecording() throws IOException {
+        Path file = flightRecorderService.dumpRecording();
+        long size = Files.size(file);
+        Resource body = new InputStreamResource(Files.newInputStream(file, StandardOpenOption.DELETE_ON_CLOSE));
+        return ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_OCTET_STREAM)
+                .contentLength(size)
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename(file.getFileName().toString()).build().toString())
+                .body(body);
+    }
+    
+    @PostMapping("/stop")
+    @PreAuthorize("@userAccess.hasRole(authentication, 'admin')")
+    public ResponseEntity<Map<String, Object>> stopRecording() {
+        return ResponseEntity.ok(flightRecorderService.stopRecording());
+    }
+    
+    private static Duration parseMaxAge(String maxAge) {
+        try {
+            return maxAge != null ? DurationStyle.detectAndParse(maxAge) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid JFR max age: " + maxAge, e);
+        }
+    }
+    
+    private static DataSize parseMaxSize(String maxSize) {
+        try {
+            return maxSize != null ? DataSize.parse(maxSize) : null;
+        } catch (IllegalArgumentException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Invalid JFR max size: " + maxSize, e);
+        }
+    }
+}
@@ -1,13 +1,24 @@
 package com.example.demo.controller;
 
+import com.example.demo.dto.CatalogSnapshot;
+import com.example.demo.dto.ProductBrowseDto;
 import com.example.demo.dto.ProductDto;
+import com.example.demo.service.CatalogSnapshotService;
+import com.example.demo.service.ProductFacetIndex;
 import com.example.demo.service.ProductService;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.security.access.prepost.PreAuthorize;
 import org.springframework.security.core.Authentication;
+import org.springframework.util.MimeTypeUtils;
+import org.springframework.util.unit.DataSize;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.context.request.WebRequest;
 
+import java.math.BigDecimal;
 import java.util.List;
 
 @RestController
@@ -16,11 +27,47 @@ import java.util.List;
 @CrossOrigin(origins = "http://localhost:4200")
 public class ProductController {
     
+    private static final MediaType SMILE = MediaType.valueOf("application/x-jackson-smile");
+    
     private final ProductService productService;
+    private final CatalogSnapshotService catalogSnapshotService;
+    private final ProductFacetIndex productFacetIndex;
+    
+    @Value("${server.compression.min-response-size:2KB}")
+    private DataSize compressionThreshold;
     
+    // ids= turns the list into a multi-get and fields= into a sparse fieldset; the full unfiltered list is
+    // served to JSON clients from the pre-encoded catalog snapshot, other formats go through normal negotiation
     @GetMapping
-    public ResponseEntity<List<ProductDto>> getAllProducts() {
-        return ResponseEntity.ok(productService.getAllProducts());
+    public ResponseEntity<?> getAllProducts(
+            @RequestParam(required = false) List<Long> ids,
+            @RequestParam(required = false) List<String> fields,
+            @RequestHeader(value = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(value = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding,
+            WebRequest request) {
+        if (fields != null && !fields.isEmpty()) {
+            return ResponseEntity.ok(productService.getProductFields(ids, fields));
+        }
+        if (ids != null) {
+            return ResponseEntity.ok(productService.getProductsByIds(ids));
+        }
+        
+        CatalogSnapshot snapshot = prefersJson(accept) ? catalogSnapshotService.getCurrentSnapshot() : null;
+        if (snapshot == null) {
+            return ResponseEntity.ok(productService.getAllProducts());
+        }
+        if (request.checkNotModified(snapshot.etag())) {
+            return null;
+        }
+        
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .eTag(snapshot.etag())
+                .varyBy(HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (acceptsGzip(acceptEncoding) && snapshot.json().length >= compressionThreshold.toBytes()) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(snapshot.gzip());
+        }
+        return response.body(snapshot.json());
     }
     
     @GetMapping("/{id}")
@@ -28,20 +75,25 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductById(id));
     }
     
+    @GetMapping("/name/{name}")
+    public ResponseEntity<ProductDto> getProductByName(@PathVariable String name) {
+        return ResponseEntity.ok(productService.getProductByName(name));
+    }
+    
     @PostMapping
-    @PreAuthorize("hasAnyRole('admin', 'manager')")
+    @PreAuthorize("@userAccess.hasAnyRole(authentication, 'admin', 'manager')")
     public ResponseEntity<ProductDto> createProduct(@RequestBody ProductDto productDto, Authentication authentication) {
         return ResponseEntity.ok(productService.createProduct(productDto));
     }
     
     @PutMapping("/{id}")
-    @PreAuthorize("hasAnyRole('admin', 'manager')")
+    @PreAuthorize("@userAccess.hasAnyRole(authentication, 'admin', 'manager')")
     public ResponseEntity<ProductDto> updateProduct(@PathVariable Long id, @RequestBody ProductDto productDto, Authentication authentication) {
         return ResponseEntity.ok(productService.updateProduct(id, productDto));
     }
     
     @DeleteMapping("/{id}")
-    @PreAuthorize("hasRole('admin')")
+    @PreAuthorize("@userAccess.hasRole(authentication, 'admin')")
     public ResponseEntity<Void> deleteProduct(@PathVariable Long id, Authentication authentication) {
         productService.deleteProduct(id);
         return ResponseEntity.noContent().build();
@@ -52,8 +104,50 @@ public class ProductController {
         return ResponseEntity.ok(productService.getProductsByCategory(category));
     }
     
+    @GetMapping("/browse")
+    public ResponseEntity<ProductBrowseDto> browseProducts(
+            @RequestParam(required = false) List<String> category,
+            @RequestParam(required = false) BigDecimal minPrice,
+            @RequestParam(required = false) BigDecimal maxPrice,
+            @RequestParam(defaultValue = "false") boolean inStock,
+            @RequestParam(defaultValue = "0") int page,
+            @RequestParam(defaultValue = "20") int size) {
+        return ResponseEntity.ok(productFacetIndex.browse(category, minPrice, maxPrice, inStock,
+                Math.max(page, 0), Math.min(Math.max(size, 1), 100)));
+    }
+    
     @GetMapping("/search")
     public ResponseEntity<List<ProductDto>> searchProducts(@RequestParam String name) {
         return ResponseEntity.ok(productService.searchProductsByName(name));
     }
+    
+    private boolean prefersJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        List<MediaType> mediaTypes = MediaType.parseMediaTypes(accept);
+        MimeTypeUtils.sortBySpecificity(mediaTypes);
+        for (MediaType mediaType : mediaTypes) {
+            if (mediaType.includes(MediaType.APPLICATION_JSON)) {
+                return true;
+            }
+            if (mediaType.includes(MediaType.APPLICATION_CBOR) || mediaType.includes(SMILE)) {
+                return false;
+            }
+        }
+        return false;
+    }
+    
+    private boolean acceptsGzip(String acceptEncoding) {
+        if (acceptEncoding == null) {
+            return false;
+        }
+        for (String coding : acceptEncoding.split(",")) {
+            String[] parts = coding.trim().split(";");
+            if (parts[0].trim().equalsIgnoreCase("gzip")) {
+                return parts.length == 1 || !parts[1].trim().matches("q=0(\\.0*)?");
+            }
+        }
+        return false;
+    }
 }
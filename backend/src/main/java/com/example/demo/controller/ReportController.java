@@ -0,0 +1,71 @@
+package com.example.demo.controller;
+
+import com.example.demo.dto.ReportJobDto;
+import com.example.demo.dto.ReportRequestDto;
+import com.example.demo.report.ReportJobService;
+import com.example.demo.security.UserAccess;
+import com.example.demo.security.UserContext;
+import lombok.RequiredArgsConstructor;
+import org.springframework.core.io.InputStreamResource;
+import org.springframework.core.io.Resource;
+import org.springframework.http.ContentDisposition;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
+import org.springframework.security.access.prepost.PreAuthorize;
+import org.springframework.security.core.Authentication;
+import org.springframework.web.bind.annotation.*;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/reports")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class ReportController {
+    
+    private final ReportJobService reportJobService;
+    
+    @PostMapping("/orders")
+    @PreAuthorize("@userAccess.hasAnyRole(authentication, 'admin', 'manager')")
+    public ResponseEntity<ReportJobDto> submitOrderReport(@RequestBody ReportRequestDto request, Authentication authentication) {
+        UserContext userContext = UserAccess.getUserContext(authentication);
+        String requestedBy = userContext != null ? userContext.getUsername() : authentication.getName();
+        return ResponseEntity.accepted().body(reportJobService.submitReport(request, requestedBy));
+    }
+    
+    @GetMapping
+    @PreAuthorize("@userAccess.hasAnyRole(authentication, 'admin', 'manager')")
+    public ResponseEntity<List<ReportJobDto>> getReports(Authentication authentication) {
+        return ResponseEntity.ok(reportJobService.getReports());
+    }
+    
+    @GetMapping("/{id}")
+    @PreAuthorize("@userAccess.hasAnyRole(authentication, 'admin', 'manager')")
+    public ResponseEntity<ReportJobDto> getReport(@PathVariable String id, Authentication authentication) {
+        return ResponseEntity.ok(reportJobService.getReport(id));
+    }
+    
+    @GetMapping("/{id}/download")
+    @PreAuthorize("@userAccess.hasAnyRole(authentication, 'admin', 'manager')")
+    public ResponseEntity<Resource> downloadReport(@PathVariable String id, Authentication authentication) throws IOException {
+        Path file = reportJobService.getReportFile(id);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType("application/gzip"))
+                .contentLength(Files.size(file))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        ContentDisposition.attachment().filename("orders-" + id + ".csv.gz").build().toString())
+                .body(new InputStreamResource(Files.newInputStream(file)));
+    }
+    
+    // Cancels a queued or running report, or deletes a finished one
+    @DeleteMapping("/{id}")
+    @PreAuthorize("@userAccess.hasAnyRole(authentication, 'admin', 'manager')")
+    public ResponseEntity<Void> deleteReport(@PathVariable String id, Authentication authentication) {
+        reportJobService.deleteReport(id);
+        return ResponseEntity.noContent().build();
+    }
+}
@@ -0,0 +1,303 @@
+package com.example.demo.datagen;
+
+import com.example.demo.entity.Order;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.CommandLineRunner;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.sql.Timestamp;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.SplittableRandom;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Loads a large, skewed catalog and order history with batched JDBC inserts. Work is split into chunks that
+// each draw from their own seeded random, so the generated rows depend only on the seed and the volumes.
+@Slf4j
+@Component
+@ConditionalOnProperty(name = "app.synthetic-data.enabled", havingValue = "true")
+@EnableConfigurationProperties(SyntheticDataProperties.class)
+@RequiredArgsConstructor
+public class SyntheticDataGenerator implements CommandLineRunner {
+    
+    private static final String[] CATEGORIES = {
+            "Electronics", "Home & Kitchen", "Fashion", "Books", "Sports", "Toys", "Beauty", "Garden"};
+    private static final int[] CATEGORY_WEIGHTS = {20, 18, 16, 14, 12, 8, 7, 5};
+    private static final long[][] CATEGORY_PRICE_CENTS = {
+            {1_999, 299_999}, {999, 59_999}, {999, 49_999}, {499, 9_999},
+            {999, 99_999}, {499, 19_999}, {399, 14_999}, {799, 79_999}};
+    
+    private static final String[] ADJECTIVES = {
+            "Compact", "Premium", "Classic", "Wireless", "Portable", "Smart", "Eco", "Deluxe", "Ultra", "Essential"};
+    private static final String[] NOUNS = {
+            "Speaker", "Blender", "Jacket", "Novel", "Racket", "Puzzle", "Serum", "Planter", "Lamp", "Backpack",
+            "Kettle", "Monitor", "Sneakers", "Cookbook", "Helmet", "Drone", "Candle", "Watch", "Mug", "Tent"};
+    private static final String[] DESCRIPTION_PHRASES = {
+            "Built to last with durable materials.", "Designed for everyday use.", "Backed by a two-year warranty.",
+            "Lightweight and easy to carry.", "Energy efficient and quiet.", "Available while stocks last.",
+            "A customer favourite this season.", "Easy to clean and maintain.", "Ships in recyclable packaging.",
+            "Pairs well with the rest of the range."};
+    private static final String[] FIRST_NAMES = {
+            "James", "Mary", "Aigerim", "Daniyar", "Sofia", "Liam", "Olivia", "Noah", "Emma", "Arman",
+            "Ava", "Lucas", "Mia", "Ethan", "Amelia", "Timur", "Harper", "Aruzhan", "Elijah", "Zara"};
+    private static final String[] LAST_NAMES = {
+            "Smith", "Johnson", "Nurlanov", "Williams", "Brown", "Seitkali", "Garcia", "Miller", "Davis", "Lopez",
+            "Wilson", "Anderson", "Abenov", "Taylor", "Thomas", "Moore", "Martin", "Lee", "Perez", "White"};
+    private static final String[] STREETS = {
+            "Main St", "Oak Ave", "Abay Ave", "Park Rd", "Maple Dr", "Cedar Ln", "Lake St", "Hill Rd", "River Rd", "Elm St"};
+    private static final String[] CITIES = {
+            "Springfield", "Almaty", "Riverside", "Astana", "Franklin", "Greenville", "Fairview", "Madison"};
+    
+    // Index = number of lines in an order
+    private static final int[] ITEMS_PER_ORDER_WEIGHTS = {0, 45, 25, 14, 8, 4, 2, 1, 1};
+    private static final int[] QUANTITY_WEIGHTS = {0, 70, 18, 7, 3, 2};
+    
+    private static final String INSERT_PRODUCT = "INSERT INTO products "
+            + "(id, name, description, price, stock_quantity, category, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER = "INSERT INTO orders "
+            + "(id, customer_name, customer_email, customer_phone, shipping_address, status, total_amount, created_at, updated_at) "
+            + "VALUES (?, ?, ?, ?, ?, ?, ?, ?, ?)";
+    private static final String INSERT_ORDER_ITEM = "INSERT INTO order_items "
+            + "(order_id, product_id, quantity, unit_price, total_price) VALUES (?, ?, ?, ?, ?)";
+    
+    private static final int PRODUCT_PHASE = 1;
+    private static final int ORDER_PHASE = 2;
+    private static final int CUSTOMER_PHASE = 3;
+    
+    private final JdbcTemplate jdbcTemplate;
+    private final TransactionTemplate transactionTemplate;
+    private final SyntheticDataProperties properties;
+    
+    @FunctionalInterface
+    private interface ChunkWriter {
+        void write(int from, int to, SplittableRandom random);
+    }
+    
+    @Override
+    public void run(String... args) throws Exception {
+        long start = System.nanoTime();
+        // Generated ids follow any existing rows so the generator can add to a seeded database
+        long productBaseId = maxId("products");
+        long orderBaseId = maxId("orders");
+        LocalDateTime historyEnd = LocalDate.now().atStartOfDay();
+        
+        long[] priceCents = new long[properties.getProducts()];
+        runChunks("products", properties.getProducts(), PRODUCT_PHASE, (from, to, random) ->
+                insertProducts(from, to, random, productBaseId, priceCents, historyEnd));
+        long productsDone = System.nanoTime();
+        
+        AtomicLong orderItemCount = new AtomicLong();
+        ZipfianSampler productPopularity = new ZipfianSampler(properties.getProducts(), properties.getProductSkew());
+        ZipfianSampler customerActivity = new ZipfianSampler(properties.getCustomers(), properties.getCustomerSkew());
+        runChunks("orders", properties.getOrders(), ORDER_PHASE, (from, to, random) ->
+                orderItemCount.addAndGet(insertOrders(from, to, random, orderBaseId, productBaseId, priceCents,
+                        productPopularity, customerActivity, historyEnd)));
+        long ordersDone = System.nanoTime();
+        
+        restartIdentity("products", productBaseId + properties.getProducts() + 1);
+        restartIdentity("orders", orderBaseId + properties.getOrders() + 1);
+        
+        long rows = properties.getProducts() + properties.getOrders() + orderItemCount.get();
+        double seconds = (ordersDone - start) / 1e9;
+        log.info("Synthetic data (seed {}): {} products in {} ms, {} orders with {} items in {} ms, {} rows/s",
+                properties.getSeed(), properties.getProducts(), (productsDone - start) / 1_000_000,
+                properties.getOrders(), orderItemCount.get(), (ordersDone - productsDone) / 1_000_000,
+                (long) (rows / seconds));
+    }
+    
+    private void insertProducts(int from, int to, SplittableRandom random, long baseId, long[] priceCents,
+                                LocalDateTime historyEnd) {
+        List<Object[]> rows = new ArrayList<>(to - from);
+        for (int ordinal = from; ordinal < to; ordinal++) {
+            long id = baseId + ordinal + 1;
+            int category = pickWeighted(CATEGORY_WEIGHTS, random);
+            
+            // Squaring the uniform draw skews prices towards the cheap end of the category's range
+            long minCents = CATEGORY_PRICE_CENTS[category][0];
+            long maxCents = CATEGORY_PRICE_CENTS[category][1];
+            double position = random.nextDouble();
+            long cents = minCents + (long) ((maxCents - minCents) * position * position);
+            cents = cents / 100 * 100 + 99;
+            priceCents[ordinal] = cents;
+            
+            int stock = random.nextInt(100) < 8 ? 0 : 1 + random.nextInt(500);
+            LocalDateTime createdAt = randomTime(historyEnd, random);
+            rows.add(new Object[]{
+                    id,
+                    ADJECTIVES[random.nextInt(ADJECTIVES.length)] + " " + NOUNS[random.nextInt(NOUNS.length)] + " " + id,
+                    description(random),
+                    BigDecimal.valueOf(cents, 2),
+                    stock,
+                    CATEGORIES[category],
+                    Timestamp.valueOf(createdAt),
+                    Timestamp.valueOf(createdAt.plusMinutes(random.nextInt(60 * 24 * 30)))
+            });
+        }
+        batchInsert(INSERT_PRODUCT, rows);
+    }
+    
+    private int insertOrders(int from, int to, SplittableRandom random, long baseId, long productBaseId,
+                             long[] priceCents, ZipfianSampler productPopularity, ZipfianSampler customerActivity,
+                             LocalDateTime historyEnd) {
+        int productCount = priceCents.length;
+        long productStride = coprimeStride(productCount, PRODUCT_PHASE);
+        long customerStride = coprimeStride(properties.getCustomers(), CUSTOMER_PHASE);
+        int[] statusWeights = statusWeights();
+        Order.OrderStatus[] statuses = Order.OrderStatus.values();
+        
+        List<Object[]> orders = new ArrayList<>(to - from);
+        List<Object[]> items = new ArrayList<>((to - from) * 2);
+        for (int ordinal = from; ordinal < to; ordinal++) {
+            long orderId = baseId + ordinal + 1;
+            int lines = pickWeighted(ITEMS_PER_ORDER_WEIGHTS, random);
+            long totalCents = 0;
+            for (int line = 0; line < lines; line++) {
+                // Popularity ranks are spread over the catalog so the best sellers are not simply the first ids
+                int product = (int) ((productPopularity.sample(random) - 1) * productStride % productCount);
+                int quantity = pickWeighted(QUANTITY_WEIGHTS, random);
+                long lineCents = priceCents[product] * quantity;
+                totalCents += lineCents;
+                items.add(new Object[]{
+                        orderId, productBaseId + product + 1, quantity,
+                        BigDecimal.valueOf(priceCents[product], 2), BigDecimal.valueOf(lineCents, 2)});
+            }
+            
+            int customer = (int) ((customerActivity.sample(random) - 1) * customerStride % properties.getCustomers());
+            SplittableRandom customerRandom = new SplittableRandom(mixSeed(CUSTOMER_PHASE, customer));
+            String firstName = FIRST_NAMES[customerRandom.nextInt(FIRST_NAMES.length)];
+            String lastName = LAST_NAMES[customerRandom.nextInt(LAST_NAMES.length)];
+            LocalDateTime createdAt = randomTime(historyEnd, random);
+            orders.add(new Object[]{
+                    orderId,
+                    firstName + " " + lastName,
+                    firstName.toLowerCase() + "." + lastName.toLowerCase() + "." + customer + "@example.com",
+                    "+1-555-" + (1000 + customerRandom.nextInt(9000)),
+                    (1 + customerRandom.nextInt(9999)) + " " + STREETS[customerRandom.nextInt(STREETS.length)]
+                            + ", " + CITIES[customerRandom.nextInt(CITIES.length)],
+                    statuses[pickWeighted(statusWeights, random)].name(),
+                    BigDecimal.valueOf(totalCents, 2),
+                    Timestamp.valueOf(createdAt),
+                    Timestamp.valueOf(createdAt.plusHours(random.nextInt(24 * 7)))
+            });
+        }
+        batchInsert(INSERT_ORDER, orders);
+        batchInsert(INSERT_ORDER_ITEM, items);
+        return items.size();
+    }
+    
+    private void runChunks(String name, int total, int phase, ChunkWriter writer) throws Exception {
+        int chunkSize = properties.getChunkSize();
+        int chunks = (total + chunkSize - 1) / chunkSize;
+        List<Future<?>> results = new ArrayList<>(chunks);
+        ExecutorService executor = Executors.newFixedThreadPool(Math.max(1, properties.getThreads()),
+                Thread.ofPlatform().name("synthetic-" + name + "-", 0).factory());
+        try {
+            for (int chunk = 0; chunk < chunks; chunk++) {
+                int from = chunk * chunkSize;
+                int to = Math.min(total, from + chunkSize);
+                SplittableRandom random = new SplittableRandom(mixSeed(phase, chunk));
+                results.add(executor.submit(() ->
+                        transactionTemplate.executeWithoutResult(status -> writer.write(from, to, random))));
+            }
+            for (Future<?> result : results) {
+                result.get();
+            }
+        } catch (ExecutionException e) {
+            throw new RuntimeException("Failed to generate synthetic " + name, e.getCause());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+    
+    private void batchInsert(String sql, List<Object[]> rows) {
+        jdbcTemplate.batchUpdate(sql, rows, properties.getBatchSize(), (statement, row) -> {
+            for (int i = 0; i < row.length; i++) {
+                statement.setObject(i + 1, row[i]);
+            }
+        });
+    }
+    
+    private long maxId(String table) {
+        Long max = jdbcTemplate.queryForObject("SELECT COALESCE(MAX(id), 0) FROM " + table, Long.class);
+        return max != null ? max : 0;
+    }
+    
+    // Rows were inserted with explicit ids, so move the identity past them for later inserts through JPA
+    private void restartIdentity(String table, long next) {
+        jdbcTemplate.execute("ALTER TABLE " + table + " ALTER COLUMN id RESTART WITH " + next);
+    }
+    
+    private int[] statusWeights() {
+        Order.OrderStatus[] statuses = Order.OrderStatus.values();
+        int[] weights = new int[statuses.length];
+        for (Map.Entry<Order.OrderStatus, Integer> entry : properties.getStatusWeights().entrySet()) {
+            weights[entry.getKey().ordinal()] = entry.getValue();
+        }
+        return weights;
+    }
+    
+    private LocalDateTime randomTime(LocalDateTime historyEnd, SplittableRandom random) {
+        return historyEnd.minusSeconds(1 + random.nextLong(properties.getHistoryDays() * 86_400L));
+    }
+    
+    private String description(SplittableRandom random) {
+        StringBuilder description = new StringBuilder();
+        int phrases = 1 + random.nextInt(4);
+        for (int i = 0; i < phrases; i++) {
+            if (i > 0) {
+                description.append(' ');
+            }
+            description.append(DESCRIPTION_PHRASES[random.nextInt(DESCRIPTION_PHRASES.length)]);
+        }
+        return description.toString();
+    }
+    
+    private static int pickWeighted(int[] weights, SplittableRandom random) {
+        int total = 0;
+        for (int weight : weights) {
+            total += weight;
+        }
+        int roll = random.nextInt(total);
+        for (int i = 0; i < weights.length; i++) {
+            roll -= weights[i];
+            if (roll < 0) {
+                return i;
+            }
+        }
+        return weights.length - 1;
+    }
+    
+    private long mixSeed(int phase, long index) {
+        return properties.getSeed() * 0x9E3779B97F4A7C15L + phase * 0xBF58476D1CE4E5B9L + index * 0x94D049BB133111EBL;
+    }
+    
+    // A stride coprime to n turns rank -> rank * stride mod n into a permutation of 0..n-1
+    private long coprimeStride(int n, int phase) {
+        if (n <= 2) {
+            return 1;
+        }
+        long stride = 2 + Math.floorMod(mixSeed(phase, n), n - 2);
+        while (gcd(stride, n) != 1) {
+            stride++;
+        }
+        return stride;
+    }
+    
+    private static long gcd(long a, long b) {
+        return b == 0 ? a : gcd(b, a % b);
+    }
+}
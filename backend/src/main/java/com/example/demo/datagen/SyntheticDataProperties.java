@@ -0,0 +1,40 @@
+package com.example.demo.datagen;
+
+import com.example.demo.entity.Order;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.EnumMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.synthetic-data")
+public class SyntheticDataProperties {
+    
+    private boolean enabled = false;
+    
+    // Same seed and volumes give the same rows, independent of thread count (order item ids follow insert order)
+    private long seed = 42;
+    
+    private int products = 100_000;
+    private int customers = 50_000;
+    private int orders = 200_000;
+    
+    // Zipf exponents: higher means a few products / customers account for more of the orders
+    private double productSkew = 1.1;
+    private double customerSkew = 0.8;
+    
+    private int historyDays = 365;
+    
+    // Rows per JDBC batch, rows per transaction (and unit of parallel work), and writer threads
+    private int batchSize = 1_000;
+    private int chunkSize = 20_000;
+    private int threads = Runtime.getRuntime().availableProcessors();
+    
+    private Map<Order.OrderStatus, Integer> statusWeights = new EnumMap<>(Map.of(
+            Order.OrderStatus.PENDING, 4,
+            Order.OrderStatus.CONFIRMED, 6,
+            Order.OrderStatus.SHIPPED, 10,
+            Order.OrderStatus.DELIVERED, 75,
+            Order.OrderStatus.CANCELLED, 5));
+}
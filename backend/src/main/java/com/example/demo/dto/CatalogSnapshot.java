@@ -0,0 +1,6 @@
+package com.example.demo.dto;
+
+// The ETag is derived from the JSON itself, so it stays valid across restarts and matches between instances
+// serving the same catalog; version only orders snapshots within this process
+public record CatalogSnapshot(long version, String etag, byte[] json, byte[] gzip) {
+}
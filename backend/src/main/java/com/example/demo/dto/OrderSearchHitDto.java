@@ -0,0 +1,13 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OrderSearchHitDto {
+    private OrderDto order;
+    private Double score;
+}
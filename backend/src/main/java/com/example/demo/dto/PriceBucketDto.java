@@ -0,0 +1,16 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.math.BigDecimal;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class PriceBucketDto {
+    private BigDecimal minPrice;
+    private BigDecimal maxPrice;
+    private Integer count;
+}
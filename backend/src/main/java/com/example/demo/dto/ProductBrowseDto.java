@@ -0,0 +1,21 @@
+package com.example.demo.dto;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.util.List;
+import java.util.Map;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ProductBrowseDto {
+    private List<ProductDto> products;
+    private Integer totalCount;
+    private Integer page;
+    private Integer size;
+    private Map<String, Integer> categoryCounts;
+    private List<PriceBucketDto> priceBuckets;
+    private Integer inStockCount;
+}
@@ -0,0 +1,32 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Order;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportJobDto {
+    private String id;
+    private String requestedBy;
+    private LocalDate from;
+    private LocalDate to;
+    private List<Order.OrderStatus> statuses;
+    private String status;
+    private Double progress;
+    private Long totalOrders;
+    private Long ordersWritten;
+    private Long rowsWritten;
+    private Long fileSize;
+    private String downloadUrl;
+    private String error;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+}
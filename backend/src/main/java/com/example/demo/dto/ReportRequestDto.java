@@ -0,0 +1,18 @@
+package com.example.demo.dto;
+
+import com.example.demo.entity.Order;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+
+import java.time.LocalDate;
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReportRequestDto {
+    private LocalDate from;
+    private LocalDate to;
+    private List<Order.OrderStatus> statuses;
+}
@@ -0,0 +1,29 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+@Name("com.example.demo.AuthoritiesExtraction")
+@Label("Authorities Extraction")
+@Description("Parsing of a JWT's realm and client role claims into granted authorities and the user context")
+@Category({"Keycloak Demo", "Security"})
+@StackTrace(false)
+@Setter
+public class AuthoritiesExtractionEvent extends jdk.jfr.Event {
+    
+    @Label("Subject")
+    private String subject;
+    
+    @Label("Token Id")
+    private String tokenId;
+    
+    @Label("Role Count")
+    private int roleCount;
+    
+    @Label("Authority Count")
+    private int authorityCount;
+}
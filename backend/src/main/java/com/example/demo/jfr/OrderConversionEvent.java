@@ -0,0 +1,23 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+@Name("com.example.demo.OrderConversion")
+@Label("Order Conversion")
+@Description("OrderService.convertToDto, which may lazily load order items and their products")
+@Category({"Keycloak Demo", "Orders"})
+@StackTrace(false)
+@Setter
+public class OrderConversionEvent extends jdk.jfr.Event {
+    
+    @Label("Order Id")
+    private long orderId;
+    
+    @Label("Item Count")
+    private int itemCount;
+}
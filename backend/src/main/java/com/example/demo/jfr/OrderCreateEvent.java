@@ -0,0 +1,29 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+@Name("com.example.demo.OrderCreate")
+@Label("Order Create")
+@Description("OrderService.createOrder, including the wait for a group commit when enabled")
+@Category({"Keycloak Demo", "Orders"})
+@StackTrace(false)
+@Setter
+public class OrderCreateEvent extends jdk.jfr.Event {
+    
+    @Label("Order Id")
+    private long orderId;
+    
+    @Label("Item Count")
+    private int itemCount;
+    
+    @Label("Group Commit")
+    private boolean groupCommit;
+    
+    @Label("Failure")
+    private String failure;
+}
@@ -0,0 +1,26 @@
+package com.example.demo.jfr;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+import jdk.jfr.StackTrace;
+import lombok.Setter;
+
+@Name("com.example.demo.ProductQuery")
+@Label("Product Query")
+@Description("A catalog read in ProductService")
+@Category({"Keycloak Demo", "Catalog"})
+@StackTrace(false)
+@Setter
+public class ProductQueryEvent extends jdk.jfr.Event {
+    
+    @Label("Query Name")
+    private String queryName;
+    
+    @Label("Parameter")
+    private String parameter;
+    
+    @Label("Result Count")
+    private int resultCount;
+}
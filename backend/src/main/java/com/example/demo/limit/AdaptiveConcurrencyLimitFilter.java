@@ -0,0 +1,151 @@
+package com.example.demo.limit;
+
+import com.example.demo.security.UserAccess;
+import com.example.demo.security.UserContext;
+import com.example.demo.security.UserRole;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.util.AntPathMatcher;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+// Admits a request only if both the global limit and the limit of its endpoint class have room at its priority.
+// Runs after Spring Security so the caller's roles are known; rejected requests get 503 with Retry-After.
+@Slf4j
+public class AdaptiveConcurrencyLimitFilter extends OncePerRequestFilter {
+    
+    private static final String DEFAULT_CLASS = "default";
+    
+    private record EndpointClass(String name, Set<String> methods, List<String> patterns, RequestPriority priority,
+                                 GradientLimit limit) {
+    }
+    
+    private final ConcurrencyLimitProperties properties;
+    private final AntPathMatcher pathMatcher = new AntPathMatcher();
+    private final List<EndpointClass> endpointClasses = new ArrayList<>();
+    private final EndpointClass defaultClass;
+    private final GradientLimit globalLimit;
+    
+    public AdaptiveConcurrencyLimitFilter(ConcurrencyLimitProperties properties) {
+        this.properties = properties;
+        for (ConcurrencyLimitProperties.Route route : properties.getRoutes()) {
+            endpointClasses.add(new EndpointClass(
+                    route.getName(),
+                    route.getMethods().stream().map(String::toUpperCase).collect(Collectors.toSet()),
+                    List.copyOf(route.getPatterns()),
+                    route.getPriority(),
+                    newLimit(properties.getInitialLimit(), properties.getMaxLimit())));
+        }
+        this.defaultClass = new EndpointClass(DEFAULT_CLASS, Set.of(), List.of(), RequestPriority.NORMAL,
+                newLimit(properties.getInitialLimit(), properties.getMaxLimit()));
+        this.globalLimit = newLimit(properties.getGlobalInitialLimit(), properties.getGlobalMaxLimit());
+    }
+    
+    public Map<String, Object> getStatus() {
+        Map<String, Object> classes = new LinkedHashMap<>();
+        for (EndpointClass endpointClass : endpointClasses) {
+            classes.put(endpointClass.name(), statusOf(endpointClass));
+        }
+        classes.put(DEFAULT_CLASS, statusOf(defaultClass));
+        
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("global", globalLimit.getStatus());
+        status.put("classes", classes);
+        return status;
+    }
+    
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain filterChain)
+            throws ServletException, IOException {
+        EndpointClass endpointClass = classify(request);
+        RequestPriority priority = RequestPriority.higherOf(endpointClass.priority(), rolePriority());
+        
+        if (!globalLimit.tryAcquire(priority)) {
+            reject(request, response, endpointClass, priority);
+            return;
+        }
+        if (!endpointClass.limit().tryAcquire(priority)) {
+            globalLimit.cancel();
+            reject(request, response, endpointClass, priority);
+            return;
+        }
+        
+        int globalInFlight = globalLimit.getInFlight();
+        int classInFlight = endpointClass.limit().getInFlight();
+        long start = System.nanoTime();
+        try {
+            filterChain.doFilter(request, response);
+        } finally {
+            long rtt = System.nanoTime() - start;
+            endpointClass.limit().release(rtt, classInFlight);
+            globalLimit.release(rtt, globalInFlight);
+        }
+    }
+    
+    private EndpointClass classify(HttpServletRequest request) {
+        String path = request.getRequestURI().substring(request.getContextPath().length());
+        for (EndpointClass endpointClass : endpointClasses) {
+            if (!endpointClass.methods().isEmpty() && !endpointClass.methods().contains(request.getMethod())) {
+                continue;
+            }
+            for (String pattern : endpointClass.patterns()) {
+                if (pathMatcher.match(pattern, path)) {
+                    return endpointClass;
+                }
+            }
+        }
+        return defaultClass;
+    }
+    
+    private RequestPriority rolePriority() {
+        if (properties.getRolePriorities().isEmpty()) {
+            return null;
+        }
+        UserContext userContext = UserAccess.getUserContext(SecurityContextHolder.getContext().getAuthentication());
+        if (userContext == null) {
+            return null;
+        }
+        RequestPriority priority = null;
+        for (UserRole role : userContext.getRoles()) {
+            priority = RequestPriority.higherOf(priority, properties.getRolePriorities().get(role));
+        }
+        return priority;
+    }
+    
+    private void reject(HttpServletRequest request, HttpServletResponse response, EndpointClass endpointClass,
+                        RequestPriority priority) throws IOException {
+        log.debug("Shedding {} {} ({} class, {} priority)", request.getMethod(), request.getRequestURI(),
+                endpointClass.name(), priority);
+        response.setStatus(HttpStatus.SERVICE_UNAVAILABLE.value());
+        response.setHeader(HttpHeaders.RETRY_AFTER, String.valueOf(Math.max(1, properties.getRetryAfter().toSeconds())));
+        response.setContentType(MediaType.APPLICATION_JSON_VALUE);
+        response.getWriter().write("{\"status\":503,\"error\":\"Service Unavailable\",\"path\":\""
+                + request.getRequestURI().replace("\"", "") + "\"}");
+    }
+    
+    private Map<String, Object> statusOf(EndpointClass endpointClass) {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("priority", endpointClass.priority());
+        status.putAll(endpointClass.limit().getStatus());
+        return status;
+    }
+    
+    private GradientLimit newLimit(int initialLimit, int maxLimit) {
+        return new GradientLimit(initialLimit, properties.getMinLimit(), maxLimit,
+                properties.getTolerance(), properties.getSmoothing(), properties.getLongWindow());
+    }
+}
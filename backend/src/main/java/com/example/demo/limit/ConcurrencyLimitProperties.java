@@ -0,0 +1,46 @@
+package com.example.demo.limit;
+
+import com.example.demo.security.UserRole;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "app.concurrency-limit")
+public class ConcurrencyLimitProperties {
+    
+    private boolean enabled = true;
+    
+    // Bounds and starting point of every adaptive limit; the global limit covers all endpoint classes together
+    private int initialLimit = 20;
+    private int minLimit = 4;
+    private int maxLimit = 200;
+    private int globalInitialLimit = 50;
+    private int globalMaxLimit = 400;
+    
+    // Latency may grow to tolerance x the long-term average before the limit shrinks
+    private double tolerance = 1.5;
+    private double smoothing = 0.2;
+    private int longWindow = 600;
+    
+    private Duration retryAfter = Duration.ofSeconds(1);
+    
+    // Evaluated in order; requests matching none fall into the "default" class with NORMAL priority
+    private List<Route> routes = new ArrayList<>();
+    
+    // A caller's role can raise, never lower, the priority of the route
+    private Map<UserRole, RequestPriority> rolePriorities = new EnumMap<>(UserRole.class);
+    
+    @Data
+    public static class Route {
+        private String name;
+        private List<String> methods = new ArrayList<>();
+        private List<String> patterns = new ArrayList<>();
+        private RequestPriority priority = RequestPriority.NORMAL;
+    }
+}
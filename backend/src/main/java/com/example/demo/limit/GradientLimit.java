@@ -0,0 +1,99 @@
+package com.example.demo.limit;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Adaptive in-flight limit after the gradient algorithm: the limit follows longRtt / shortRtt, shrinking when
+// recent latency rises above the long-term baseline (queueing) and growing by sqrt(limit) headroom while it is flat
+public class GradientLimit {
+    
+    private static final int SHORT_WINDOW = 10;
+    
+    private final int minLimit;
+    private final int maxLimit;
+    private final double tolerance;
+    private final double smoothing;
+    private final int longWindow;
+    
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicLong rejected = new AtomicLong();
+    private volatile double limit;
+    private double shortRtt;
+    private double longRtt;
+    
+    public GradientLimit(int initialLimit, int minLimit, int maxLimit, double tolerance, double smoothing, int longWindow) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.tolerance = tolerance;
+        this.smoothing = smoothing;
+        this.longWindow = longWindow;
+    }
+    
+    public boolean tryAcquire(RequestPriority priority) {
+        int ceiling = Math.max(1, (int) (limit * priority.limitShare()));
+        while (true) {
+            int current = inFlight.get();
+            if (current >= ceiling) {
+                rejected.incrementAndGet();
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+    
+    // Used when a request was admitted here but rejected by another limit
+    public void cancel() {
+        inFlight.decrementAndGet();
+    }
+    
+    public void release(long rttNanos, int inFlightAtStart) {
+        inFlight.decrementAndGet();
+        update(rttNanos, inFlightAtStart);
+    }
+    
+    public int getInFlight() {
+        return inFlight.get();
+    }
+    
+    public Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("limit", (int) limit);
+        status.put("inFlight", inFlight.get());
+        status.put("rejected", rejected.get());
+        synchronized (this) {
+            status.put("shortRttMillis", shortRtt / 1_000_000);
+            status.put("longRttMillis", longRtt / 1_000_000);
+        }
+        return status;
+    }
+    
+    private synchronized void update(long rttNanos, int inFlightAtStart) {
+        if (longRtt == 0) {
+            shortRtt = rttNanos;
+            longRtt = rttNanos;
+            return;
+        }
+        shortRtt += (rttNanos - shortRtt) / SHORT_WINDOW;
+        longRtt += (rttNanos - longRtt) / longWindow;
+        
+        // After a sustained latency shift, pull the baseline towards it so the limit can recover
+        if (longRtt / shortRtt > 2) {
+            longRtt *= 0.95;
+        }
+        
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRtt / shortRtt));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        
+        // Do not grow while the current limit is not being used
+        if (newLimit > limit && inFlightAtStart < limit / 2) {
+            return;
+        }
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        limit = Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
@@ -0,0 +1,23 @@
+package com.example.demo.limit;
+
+// Share of a concurrency limit each priority may fill; lower priorities hit their ceiling first and are shed first
+public enum RequestPriority {
+    CRITICAL(1.0), HIGH(0.9), NORMAL(0.75), LOW(0.5);
+    
+    private final double limitShare;
+    
+    RequestPriority(double limitShare) {
+        this.limitShare = limitShare;
+    }
+    
+    public double limitShare() {
+        return limitShare;
+    }
+    
+    public static RequestPriority higherOf(RequestPriority a, RequestPriority b) {
+        if (a == null) {
+            return b;
+        }
+        return b == null || a.ordinal() <= b.ordinal() ? a : b;
+    }
+}
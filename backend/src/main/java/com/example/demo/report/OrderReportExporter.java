@@ -0,0 +1,134 @@
+package com.example.demo.report;
+
+import com.example.demo.entity.Order;
+import lombok.RequiredArgsConstructor;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.math.BigDecimal;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.sql.Timestamp;
+import java.util.ArrayList;
+import java.util.List;
+
+// Reads matching orders straight over JDBC: a report touches every order in the range once, so going
+// through JPA would only fill the second-level cache and load items with a query per order
+@Component
+@RequiredArgsConstructor
+public class OrderReportExporter {
+    
+    static final String HEADER = "order_id,created_at,status,customer_name,customer_email,customer_phone,"
+            + "shipping_address,order_total,product_id,product_name,quantity,unit_price,line_total\n";
+    
+    private final JdbcTemplate jdbcTemplate;
+    
+    public long countOrders(ReportJob job) {
+        List<Object> args = new ArrayList<>();
+        String filter = filter(job, args);
+        Long count = jdbcTemplate.queryForObject("SELECT COUNT(*) FROM orders o WHERE " + filter, Long.class, args.toArray());
+        return count != null ? count : 0;
+    }
+    
+    // Ids of the next chunk of matching orders after the checkpoint, ascending
+    public List<Long> nextChunk(ReportJob job, long afterId, int size) {
+        List<Object> args = new ArrayList<>();
+        args.add(afterId);
+        String filter = filter(job, args);
+        args.add(size);
+        return jdbcTemplate.queryForList("SELECT o.id FROM orders o WHERE o.id > ? AND " + filter + " ORDER BY o.id LIMIT ?",
+                Long.class, args.toArray());
+    }
+    
+    // Writes one row per item of the matching orders with ids in [firstId, lastId]; returns the rows written
+    public long writeChunk(ReportJob job, long firstId, long lastId, Writer out) {
+        List<Object> args = new ArrayList<>();
+        args.add(firstId);
+        args.add(lastId);
+        String filter = filter(job, args);
+        String sql = """
+                SELECT o.id, o.created_at, o.status, o.customer_name, o.customer_email, o.customer_phone,
+                       o.shipping_address, o.total_amount, oi.product_id, p.name, oi.quantity, oi.unit_price, oi.total_price
+                FROM orders o
+                LEFT JOIN order_items oi ON oi.order_id = o.id
+                LEFT JOIN products p ON p.id = oi.product_id
+                WHERE o.id BETWEEN ? AND ? AND %s
+                ORDER BY o.id, oi.id
+                """.formatted(filter);
+        
+        long[] rows = {0};
+        StringBuilder line = new StringBuilder(256);
+        RowCallbackHandler handler = rs -> {
+            line.setLength(0);
+            line.append(rs.getLong(1)).append(',');
+            Timestamp createdAt = rs.getTimestamp(2);
+            line.append(createdAt != null ? createdAt.toLocalDateTime() : "").append(',');
+            appendField(line, rs.getString(3)).append(',');
+            appendField(line, rs.getString(4)).append(',');
+            appendField(line, rs.getString(5)).append(',');
+            appendField(line, rs.getString(6)).append(',');
+            appendField(line, rs.getString(7)).append(',');
+            appendDecimal(line, rs.getBigDecimal(8)).append(',');
+            appendLong(line, rs, 9).append(',');
+            appendField(line, rs.getString(10)).append(',');
+            appendLong(line, rs, 11).append(',');
+            appendDecimal(line, rs.getBigDecimal(12)).append(',');
+            appendDecimal(line, rs.getBigDecimal(13)).append('\n');
+            try {
+                out.append(line);
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+            rows[0]++;
+        };
+        jdbcTemplate.query(sql, handler, args.toArray());
+        return rows[0];
+    }
+    
+    // Date range is [from, to] in whole days; no statuses means all of them
+    private static String filter(ReportJob job, List<Object> args) {
+        StringBuilder filter = new StringBuilder("1 = 1");
+        if (job.getFrom() != null) {
+            filter.append(" AND o.created_at >= ?");
+            args.add(Timestamp.valueOf(job.getFrom().atStartOfDay()));
+        }
+        if (job.getTo() != null) {
+            filter.append(" AND o.created_at < ?");
+            args.add(Timestamp.valueOf(job.getTo().plusDays(1).atStartOfDay()));
+        }
+        List<Order.OrderStatus> statuses = job.getStatuses();
+        if (statuses != null && !statuses.isEmpty()) {
+            filter.append(" AND o.status IN (").append("?, ".repeat(statuses.size() - 1)).append("?)");
+            statuses.forEach(status -> args.add(status.name()));
+        }
+        return filter.toString();
+    }
+    
+    private static StringBuilder appendField(StringBuilder line, String value) {
+        if (value == null) {
+            return line;
+        }
+        boolean quote = false;
+        for (int i = 0; i < value.length() && !quote; i++) {
+            char c = value.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            return line.append(value);
+        }
+        return line.append('"').append(value.replace("\"", "\"\"")).append('"');
+    }
+    
+    private static StringBuilder appendDecimal(StringBuilder line, BigDecimal value) {
+        return value != null ? line.append(value.toPlainString()) : line;
+    }
+    
+    private static StringBuilder appendLong(StringBuilder line, ResultSet rs, int column) throws SQLException {
+        long value = rs.getLong(column);
+        return rs.wasNull() ? line : line.append(value);
+    }
+}
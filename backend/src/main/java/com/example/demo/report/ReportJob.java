@@ -0,0 +1,42 @@
+package com.example.demo.report;
+
+import com.example.demo.entity.Order;
+import com.fasterxml.jackson.annotation.JsonIgnore;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+
+// Persisted state of a report job, rewritten after every chunk
+@Data
+@NoArgsConstructor
+public class ReportJob {
+    
+    private String id;
+    private String requestedBy;
+    private LocalDate from;
+    private LocalDate to;
+    private List<Order.OrderStatus> statuses;
+    private Status status;
+    private LocalDateTime createdAt;
+    private LocalDateTime startedAt;
+    private LocalDateTime finishedAt;
+    private long totalOrders;
+    private long ordersWritten;
+    private long rowsWritten;
+    // Checkpoint: every matching order up to lastOrderId is in the first fileSize bytes of the output
+    private long lastOrderId;
+    private long fileSize;
+    private String error;
+    
+    public enum Status {
+        QUEUED, RUNNING, COMPLETED, FAILED, CANCELLED
+    }
+    
+    @JsonIgnore
+    public boolean isFinished() {
+        return status == Status.COMPLETED || status == Status.FAILED || status == Status.CANCELLED;
+    }
+}
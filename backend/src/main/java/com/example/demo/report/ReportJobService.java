@@ -0,0 +1,383 @@
+package com.example.demo.report;
+
+import com.example.demo.dto.ReportJobDto;
+import com.example.demo.dto.ReportRequestDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.UncheckedIOException;
+import java.io.Writer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+// Runs order reports on a small bounded pool. Each chunk of orders is appended to the output as its own
+// gzip member (concatenated members are still one valid gzip file) and then checkpointed, so a job
+// interrupted by a restart truncates the file back to its last checkpoint and carries on from there
+@Slf4j
+@Service
+@RequiredArgsConstructor
+@EnableConfigurationProperties(ReportProperties.class)
+public class ReportJobService {
+    
+    private static final int RETRY_AFTER_SECONDS = 30;
+    
+    private final ReportProperties properties;
+    private final OrderReportExporter exporter;
+    private final ObjectMapper objectMapper;
+    
+    private final Map<String, ReportJob> jobs = new ConcurrentHashMap<>();
+    private final Set<String> cancelRequests = ConcurrentHashMap.newKeySet();
+    // Unfinished jobs found on disk at startup; jobs submitted since then are already on the executor
+    private final List<ReportJob> interrupted = new ArrayList<>();
+    private ThreadPoolExecutor executor;
+    
+    @PostConstruct
+    void start() throws IOException {
+        Files.createDirectories(properties.getDirectory());
+        executor = new ThreadPoolExecutor(properties.getThreads(), properties.getThreads(), 0, TimeUnit.MILLISECONDS,
+                new ArrayBlockingQueue<>(properties.getQueueCapacity()),
+                Thread.ofPlatform().name("report-", 1).daemon().factory());
+        loadJobs();
+    }
+    
+    // Interrupted jobs keep their QUEUED or RUNNING state on disk and are picked up again on the next start
+    @PreDestroy
+    void stop() throws InterruptedException {
+        executor.shutdownNow();
+        if (!executor.awaitTermination(10, TimeUnit.SECONDS)) {
+            log.warn("Report jobs did not stop within 10 seconds");
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void resumeJobs() {
+        interrupted.sort(Comparator.comparing(ReportJob::getCreatedAt));
+        for (ReportJob job : interrupted) {
+            log.info("Resuming report {} after order {}", job.getId(), job.getLastOrderId());
+            try {
+                executor.execute(() -> run(job));
+            } catch (RejectedExecutionException e) {
+                finish(job, ReportJob.Status.FAILED, "Report queue was full when resuming");
+            }
+        }
+        interrupted.clear();
+    }
+    
+    public ReportJobDto submitReport(ReportRequestDto request, String requestedBy) {
+        if (request.getFrom() != null && request.getTo() != null && request.getFrom().isAfter(request.getTo())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Report start date must not be after end date");
+        }
+        ReportJob job = new ReportJob();
+        job.setId(UUID.randomUUID().toString());
+        job.setRequestedBy(requestedBy);
+        job.setFrom(request.getFrom());
+        job.setTo(request.getTo());
+        job.setStatuses(request.getStatuses() != null ? List.copyOf(request.getStatuses()) : List.of());
+        job.setStatus(ReportJob.Status.QUEUED);
+        job.setCreatedAt(LocalDateTime.now());
+        save(job);
+        jobs.put(job.getId(), job);
+        try {
+            executor.execute(() -> run(job));
+        } catch (RejectedExecutionException e) {
+            jobs.remove(job.getId());
+            deleteFiles(job);
+            throw queueFull();
+        }
+        return toDto(job);
+    }
+    
+    public List<ReportJobDto> getReports() {
+        return jobs.values().stream()
+                .sorted(Comparator.comparing(ReportJob::getCreatedAt).reversed())
+                .map(this::toDto)
+                .toList();
+    }
+    
+    public ReportJobDto getReport(String id) {
+        return toDto(getJob(id));
+    }
+    
+    public Path getReportFile(String id) {
+        ReportJob job = getJob(id);
+        if (job.getStatus() != ReportJob.Status.COMPLETED) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "Report is not ready: " + id);
+        }
+        return reportFile(job);
+    }
+    
+    // Cancels a queued or running report; a finished one is deleted along with its output
+    public void deleteReport(String id) {
+        ReportJob job = getJob(id);
+        synchronized (job) {
+            if (job.getStatus() == ReportJob.Status.QUEUED) {
+                finish(job, ReportJob.Status.CANCELLED, null);
+                return;
+            }
+            if (job.getStatus() == ReportJob.Status.RUNNING) {
+                cancelRequests.add(id);
+                return;
+            }
+        }
+        jobs.remove(id);
+        deleteFiles(job);
+    }
+    
+    // 503 with a Retry-After hint; queued reports take a while, so clients should not retry straight away
+    private static ResponseStatusException queueFull() {
+        return new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Too many reports in progress, try again later") {
+            @Override
+            public HttpHeaders getHeaders() {
+                HttpHeaders headers = new HttpHeaders();
+                headers.set(HttpHeaders.RETRY_AFTER, String.valueOf(RETRY_AFTER_SECONDS));
+                return headers;
+            }
+        };
+    }
+    
+    private ReportJob getJob(String id) {
+        ReportJob job = jobs.get(id);
+        if (job == null) {
+            throw new ResponseStatusException(HttpStatus.NOT_FOUND, "Report not found with id: " + id);
+        }
+        return job;
+    }
+    
+    private void run(ReportJob job) {
+        synchronized (job) {
+            if (job.getStatus() != ReportJob.Status.QUEUED && job.getStatus() != ReportJob.Status.RUNNING) {
+                return;
+            }
+            job.setStatus(ReportJob.Status.RUNNING);
+            if (job.getStartedAt() == null) {
+                job.setStartedAt(LocalDateTime.now());
+            }
+        }
+        Path part = partFile(job);
+        try (FileChannel channel = FileChannel.open(part, StandardOpenOption.CREATE, StandardOpenOption.WRITE)) {
+            if (job.getFileSize() > 0 && channel.size() >= job.getFileSize()) {
+                // Anything past the checkpoint belongs to a chunk that was cut short
+                channel.truncate(job.getFileSize());
+                channel.position(job.getFileSize());
+            } else {
+                channel.truncate(0);
+                long total = exporter.countOrders(job);
+                synchronized (job) {
+                    job.setTotalOrders(total);
+                    job.setOrdersWritten(0);
+                    job.setRowsWritten(0);
+                }
+                writeMember(channel, writer -> writer.write(OrderReportExporter.HEADER));
+                checkpoint(job, channel, 0, 0, 0);
+            }
+            
+            while (true) {
+                if (cancelRequests.remove(job.getId())) {
+                    channel.close();
+                    Files.deleteIfExists(part);
+                    finish(job, ReportJob.Status.CANCELLED, null);
+                    return;
+                }
+                if (executor.isShutdown()) {
+                    return;
+                }
+                List<Long> ids = exporter.nextChunk(job, job.getLastOrderId(), properties.getChunkSize());
+                if (ids.isEmpty()) {
+                    break;
+                }
+                long[] rows = {0};
+                writeMember(channel, writer -> rows[0] = exporter.writeChunk(job, ids.getFirst(), ids.getLast(), writer));
+                checkpoint(job, channel, ids.getLast(), ids.size(), rows[0]);
+            }
+        } catch (Exception e) {
+            if (executor.isShutdown()) {
+                log.info("Report {} interrupted by shutdown after order {}", job.getId(), job.getLastOrderId());
+                return;
+            }
+            log.error("Report {} failed", job.getId(), e);
+            deleteFiles(job);
+            finish(job, ReportJob.Status.FAILED, e.getMessage());
+            return;
+        }
+        
+        try {
+            Files.move(part, reportFile(job), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            log.error("Report {} could not be moved into place", job.getId(), e);
+            finish(job, ReportJob.Status.FAILED, e.getMessage());
+            return;
+        }
+        finish(job, ReportJob.Status.COMPLETED, null);
+        log.info("Report {} completed with {} orders, {} rows and {} bytes",
+                job.getId(), job.getOrdersWritten(), job.getRowsWritten(), job.getFileSize());
+    }
+    
+    @FunctionalInterface
+    private interface MemberContent {
+        void write(Writer writer) throws IOException;
+    }
+    
+    // Writes one complete gzip member at the channel's position without closing the channel
+    private static void writeMember(FileChannel channel, MemberContent content) throws IOException {
+        OutputStream target = Channels.newOutputStream(channel);
+        OutputStream unclosable = new OutputStream() {
+            @Override
+            public void write(int b) throws IOException {
+                target.write(b);
+            }
+            
+            @Override
+            public void write(byte[] b, int off, int len) throws IOException {
+                target.write(b, off, len);
+            }
+        };
+        try (Writer writer = new BufferedWriter(new OutputStreamWriter(
+                new GZIPOutputStream(unclosable, 64 * 1024), StandardCharsets.UTF_8), 64 * 1024)) {
+            content.write(writer);
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+    }
+    
+    // The chunk is forced to disk before the job file points past it
+    private void checkpoint(ReportJob job, FileChannel channel, long lastOrderId, long orders, long rows) throws IOException {
+        channel.force(false);
+        synchronized (job) {
+            job.setLastOrderId(lastOrderId);
+            job.setOrdersWritten(job.getOrdersWritten() + orders);
+            job.setRowsWritten(job.getRowsWritten() + rows);
+            job.setFileSize(channel.position());
+        }
+        save(job);
+    }
+    
+    private void finish(ReportJob job, ReportJob.Status status, String error) {
+        cancelRequests.remove(job.getId());
+        synchronized (job) {
+            job.setStatus(status);
+            job.setError(error);
+            job.setFinishedAt(LocalDateTime.now());
+        }
+        save(job);
+    }
+    
+    // Written to a temporary file and moved over the old one, so a crash never leaves half a job file
+    private void save(ReportJob job) {
+        Path file = jobFile(job.getId());
+        Path temp = file.resolveSibling(file.getFileName() + ".tmp");
+        try {
+            synchronized (job) {
+                objectMapper.writeValue(temp.toFile(), job);
+            }
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+        } catch (IOException e) {
+            throw new UncheckedIOException("Failed to save report " + job.getId(), e);
+        }
+    }
+    
+    private void loadJobs() throws IOException {
+        LocalDateTime expiry = LocalDateTime.now().minus(properties.getRetention());
+        List<ReportJob> loaded = new ArrayList<>();
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(properties.getDirectory(), "*.json")) {
+            for (Path file : files) {
+                try {
+                    loaded.add(objectMapper.readValue(file.toFile(), ReportJob.class));
+                } catch (IOException e) {
+                    log.warn("Skipping unreadable report job {}", file, e);
+                }
+            }
+        }
+        for (ReportJob job : loaded) {
+            if (job.isFinished() && job.getFinishedAt() != null && job.getFinishedAt().isBefore(expiry)) {
+                deleteFiles(job);
+            } else {
+                jobs.put(job.getId(), job);
+                if (!job.isFinished()) {
+                    interrupted.add(job);
+                }
+            }
+        }
+        log.info("Loaded {} report jobs", jobs.size());
+    }
+    
+    private void deleteFiles(ReportJob job) {
+        try {
+            Files.deleteIfExists(partFile(job));
+            Files.deleteIfExists(reportFile(job));
+            if (!jobs.containsKey(job.getId())) {
+                Files.deleteIfExists(jobFile(job.getId()));
+            }
+        } catch (IOException e) {
+            log.warn("Failed to delete files of report {}", job.getId(), e);
+        }
+    }
+    
+    private ReportJobDto toDto(ReportJob job) {
+        synchronized (job) {
+            double progress = job.getStatus() == ReportJob.Status.COMPLETED ? 100.0
+                    : job.getTotalOrders() > 0 ? Math.min(100.0, job.getOrdersWritten() * 100.0 / job.getTotalOrders()) : 0.0;
+            return new ReportJobDto(
+                    job.getId(),
+                    job.getRequestedBy(),
+                    job.getFrom(),
+                    job.getTo(),
+                    job.getStatuses(),
+                    job.getStatus().name(),
+                    Math.round(progress * 10) / 10.0,
+                    job.getTotalOrders(),
+                    job.getOrdersWritten(),
+                    job.getRowsWritten(),
+                    job.getFileSize(),
+                    job.getStatus() == ReportJob.Status.COMPLETED ? "/api/reports/" + job.getId() + "/download" : null,
+                    job.getError(),
+                    job.getCreatedAt(),
+                    job.getStartedAt(),
+                    job.getFinishedAt());
+        }
+    }
+    
+    private Path jobFile(String id) {
+        return properties.getDirectory().resolve(id + ".json");
+    }
+    
+    private Path partFile(ReportJob job) {
+        return properties.getDirectory().resolve(job.getId() + ".csv.gz.part");
+    }
+    
+    private Path reportFile(ReportJob job) {
+        return properties.getDirectory().resolve(job.getId() + ".csv.gz");
+    }
+}
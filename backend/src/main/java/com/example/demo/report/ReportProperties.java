@@ -0,0 +1,25 @@
+package com.example.demo.report;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "app.reports")
+public class ReportProperties {
+    
+    // Job state (<id>.json) and output (<id>.csv.gz, <id>.csv.gz.part while running) live side by side
+    private Path directory = Path.of("reports");
+    
+    // Jobs running at once, and jobs that may wait for a thread before new submissions are refused
+    private int threads = 2;
+    private int queueCapacity = 20;
+    
+    // Orders per keyset chunk; every chunk is written as one gzip member and followed by a checkpoint
+    private int chunkSize = 1_000;
+    
+    // Finished reports older than this are deleted at startup
+    private Duration retention = Duration.ofDays(7);
+}
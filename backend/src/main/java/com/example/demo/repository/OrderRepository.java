@@ -1,10 +1,12 @@
 package com.example.demo.repository;
 
 import com.example.demo.entity.Order;
+import org.springframework.data.domain.Limit;
 import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.stereotype.Repository;
 
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface OrderRepository extends JpaRepository<Order, Long> {
@@ -14,4 +16,12 @@ public interface OrderRepository extends JpaRepository<Order, Long> {
     List<Order> findByStatus(Order.OrderStatus status);
     
     List<Order> findByCustomerNameContainingIgnoreCase(String customerName);
+    
+    // Contact fields only, for building the order search index without loading order items
+    record Contact(Long id, String customerName, String customerEmail, String customerPhone) {
+    }
+    
+    List<Contact> findByIdGreaterThanOrderByIdAsc(Long id, Limit limit);
+    
+    Optional<Contact> findContactById(Long id);
 }
@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+
+public interface ProductFieldsRepository {
+    
+    // Selects only the given columns; ids may be null to read the whole catalog
+    List<Map<String, Object>> findFieldsByIds(List<String> fields, Collection<Long> ids);
+}
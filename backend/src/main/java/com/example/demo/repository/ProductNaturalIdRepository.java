@@ -0,0 +1,11 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Product;
+
+import java.util.Optional;
+
+public interface ProductNaturalIdRepository {
+    
+    // Resolved through the natural-id cache, so repeated lookups skip the database
+    Optional<Product> findByNaturalId(String name);
+}
@@ -0,0 +1,21 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Product;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.PersistenceContext;
+import org.hibernate.Session;
+
+import java.util.Optional;
+
+public class ProductNaturalIdRepositoryImpl implements ProductNaturalIdRepository {
+    
+    @PersistenceContext
+    private EntityManager entityManager;
+    
+    @Override
+    public Optional<Product> findByNaturalId(String name) {
+        return entityManager.unwrap(Session.class)
+                .bySimpleNaturalId(Product.class)
+                .loadOptional(name);
+    }
+}
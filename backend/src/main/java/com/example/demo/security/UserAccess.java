@@ -0,0 +1,37 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.stereotype.Component;
+
+// Role checks for @PreAuthorize, e.g. @PreAuthorize("@userAccess.hasAnyRole(authentication, 'admin', 'manager')")
+@Component("userAccess")
+public class UserAccess {
+    
+    public boolean hasRole(Authentication authentication, String role) {
+        UserContext userContext = getUserContext(authentication);
+        return userContext != null && userContext.hasRole(role);
+    }
+    
+    public boolean hasAnyRole(Authentication authentication, String... roles) {
+        UserContext userContext = getUserContext(authentication);
+        if (userContext == null) {
+            return false;
+        }
+        for (String role : roles) {
+            if (userContext.hasRole(role)) {
+                return true;
+            }
+        }
+        return false;
+    }
+    
+    public static UserContext getUserContext(Authentication authentication) {
+        if (authentication == null || !authentication.isAuthenticated()) {
+            return null;
+        }
+        if (authentication instanceof UserAuthenticationToken token) {
+            return token.getUserContext();
+        }
+        return UserContext.fromAuthentication(authentication);
+    }
+}
@@ -0,0 +1,21 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+
+import java.util.Collection;
+
+public class UserAuthenticationToken extends JwtAuthenticationToken {
+    
+    private final UserContext userContext;
+    
+    public UserAuthenticationToken(Jwt jwt, Collection<? extends GrantedAuthority> authorities, UserContext userContext) {
+        super(jwt, authorities, userContext.getUsername() != null ? userContext.getUsername() : jwt.getSubject());
+        this.userContext = userContext;
+    }
+    
+    public UserContext getUserContext() {
+        return userContext;
+    }
+}
@@ -0,0 +1,149 @@
+package com.example.demo.security;
+
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.EnumSet;
+import java.util.List;
+import java.util.Set;
+
+// Immutable view of the caller, built once when the JWT is converted
+public final class UserContext {
+    
+    private final String subject;
+    private final String username;
+    private final String email;
+    private final String firstName;
+    private final String lastName;
+    private final String issuer;
+    private final Instant issuedAt;
+    private final Instant expiresAt;
+    private final List<String> roleNames;
+    private final List<String> groups;
+    private final Set<UserRole> roles;
+    private final int roleBits;
+    
+    private UserContext(String subject, String username, String email, String firstName, String lastName,
+                        String issuer, Instant issuedAt, Instant expiresAt,
+                        Collection<String> roleNames, List<String> groups) {
+        this.subject = subject;
+        this.username = username;
+        this.email = email;
+        this.firstName = firstName;
+        this.lastName = lastName;
+        this.issuer = issuer;
+        this.issuedAt = issuedAt;
+        this.expiresAt = expiresAt;
+        this.roleNames = List.copyOf(roleNames);
+        this.groups = List.copyOf(groups);
+        
+        EnumSet<UserRole> knownRoles = EnumSet.noneOf(UserRole.class);
+        int bits = 0;
+        for (String roleName : roleNames) {
+            UserRole role = UserRole.fromName(roleName);
+            if (role != null) {
+                knownRoles.add(role);
+                bits |= role.bit();
+            }
+        }
+        this.roles = Collections.unmodifiableSet(knownRoles);
+        this.roleBits = bits;
+    }
+    
+    // roleNames are the upper-cased realm and client roles, without the ROLE_ prefix
+    @SuppressWarnings("unchecked")
+    public static UserContext fromJwt(Jwt jwt, Collection<String> roleNames) {
+        Object groups = jwt.getClaims().get("groups");
+        return new UserContext(
+                jwt.getSubject(),
+                jwt.getClaimAsString("preferred_username"),
+                jwt.getClaimAsString("email"),
+                jwt.getClaimAsString("given_name"),
+                jwt.getClaimAsString("family_name"),
+                jwt.getIssuer() != null ? jwt.getIssuer().toString() : null,
+                jwt.getIssuedAt(),
+                jwt.getExpiresAt(),
+                roleNames,
+                groups instanceof List<?> list ? (List<String>) list : List.of()
+        );
+    }
+    
+    // Fallback for authentications that did not come from a JWT
+    public static UserContext fromAuthentication(Authentication authentication) {
+        List<String> roleNames = new ArrayList<>();
+        for (GrantedAuthority authority : authentication.getAuthorities()) {
+            String name = authority.getAuthority();
+            if (name != null && name.startsWith("ROLE_")) {
+                roleNames.add(name.substring(5));
+            }
+        }
+        return new UserContext(null, authentication.getName(), null, null, null,
+                null, null, null, roleNames, List.of());
+    }
+    
+    public boolean hasRole(UserRole role) {
+        return role != null && (roleBits & role.bit()) != 0;
+    }
+    
+    public boolean hasAnyRole(int roleMask) {
+        return (roleBits & roleMask) != 0;
+    }
+    
+    // Roles outside UserRole (e.g. client roles) are matched by name
+    public boolean hasRole(String roleName) {
+        if (roleName == null) {
+            return false;
+        }
+        UserRole role = UserRole.fromName(roleName);
+        return role != null ? hasRole(role) : roleNames.contains(roleName.toUpperCase());
+    }
+    
+    public String getSubject() {
+        return subject;
+    }
+    
+    public String getUsername() {
+        return username;
+    }
+    
+    public String getEmail() {
+        return email;
+    }
+    
+    public String getFirstName() {
+        return firstName;
+    }
+    
+    public String getLastName() {
+        return lastName;
+    }
+    
+    public String getIssuer() {
+        return issuer;
+    }
+    
+    public Instant getIssuedAt() {
+        return issuedAt;
+    }
+    
+    public Instant getExpiresAt() {
+        return expiresAt;
+    }
+    
+    public List<String> getRoleNames() {
+        return roleNames;
+    }
+    
+    public List<String> getGroups() {
+        return groups;
+    }
+    
+    public Set<UserRole> getRoles() {
+        return roles;
+    }
+}
@@ -0,0 +1,37 @@
+package com.example.demo.security;
+
+import java.util.HashMap;
+import java.util.Map;
+
+public enum UserRole {
+    ADMIN, MANAGER, EMPLOYEE, CUSTOMER, USER;
+    
+    private static final Map<String, UserRole> BY_NAME = new HashMap<>();
+    
+    static {
+        for (UserRole role : values()) {
+            BY_NAME.put(role.name(), role);
+            BY_NAME.put(role.name().toLowerCase(), role);
+        }
+    }
+    
+    private final int bit = 1 << ordinal();
+    
+    public int bit() {
+        return bit;
+    }
+    
+    // Accepts Keycloak role names in any case; returns null for roles the application does not model
+    public static UserRole fromName(String name) {
+        UserRole role = BY_NAME.get(name);
+        return role != null || name == null ? role : BY_NAME.get(name.toUpperCase());
+    }
+    
+    public static int mask(UserRole... roles) {
+        int mask = 0;
+        for (UserRole role : roles) {
+            mask |= role.bit;
+        }
+        return mask;
+    }
+}
@@ -0,0 +1,43 @@
+package com.example.demo.security;
+
+import org.springframework.security.authorization.AuthorizationDecision;
+import org.springframework.security.authorization.AuthorizationManager;
+import org.springframework.security.authorization.AuthorizationResult;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.web.access.intercept.RequestAuthorizationContext;
+
+import java.util.function.Supplier;
+
+// URL authorization against the precomputed role bits of the UserContext
+public final class UserRoleAuthorizationManager implements AuthorizationManager<RequestAuthorizationContext> {
+    
+    private static final AuthorizationDecision GRANTED = new AuthorizationDecision(true);
+    private static final AuthorizationDecision DENIED = new AuthorizationDecision(false);
+    
+    private final int roleMask;
+    
+    private UserRoleAuthorizationManager(int roleMask) {
+        this.roleMask = roleMask;
+    }
+    
+    public static UserRoleAuthorizationManager hasAnyRole(UserRole... roles) {
+        return new UserRoleAuthorizationManager(UserRole.mask(roles));
+    }
+    
+    @Override
+    public AuthorizationResult authorize(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return decide(authentication.get());
+    }
+    
+    // Still abstract in AuthorizationManager, but the filter chain only calls authorize()
+    @Deprecated
+    @Override
+    public AuthorizationDecision check(Supplier<Authentication> authentication, RequestAuthorizationContext context) {
+        return decide(authentication.get());
+    }
+    
+    private AuthorizationDecision decide(Authentication authentication) {
+        UserContext userContext = UserAccess.getUserContext(authentication);
+        return userContext != null && userContext.hasAnyRole(roleMask) ? GRANTED : DENIED;
+    }
+}
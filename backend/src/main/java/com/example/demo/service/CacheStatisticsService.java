@@ -0,0 +1,59 @@
+package com.example.demo.service;
+
+import jakarta.persistence.EntityManagerFactory;
+import lombok.RequiredArgsConstructor;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.CacheRegionStatistics;
+import org.hibernate.stat.Statistics;
+import org.springframework.stereotype.Service;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+@Service
+@RequiredArgsConstructor
+public class CacheStatisticsService {
+    
+    private final EntityManagerFactory entityManagerFactory;
+    
+    public Map<String, Object> getCacheStatistics() {
+        Statistics statistics = getStatistics();
+        
+        Map<String, Object> regions = new LinkedHashMap<>();
+        for (String regionName : statistics.getSecondLevelCacheRegionNames()) {
+            CacheRegionStatistics regionStatistics = statistics.getCacheRegionStatistics(regionName);
+            if (regionStatistics != null) {
+                regions.put(regionName, toMap(regionStatistics));
+            }
+        }
+        
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("statisticsEnabled", statistics.isStatisticsEnabled());
+        result.put("secondLevelCacheHitCount", statistics.getSecondLevelCacheHitCount());
+        result.put("secondLevelCacheMissCount", statistics.getSecondLevelCacheMissCount());
+        result.put("secondLevelCachePutCount", statistics.getSecondLevelCachePutCount());
+        result.put("naturalIdCacheHitCount", statistics.getNaturalIdCacheHitCount());
+        result.put("naturalIdCacheMissCount", statistics.getNaturalIdCacheMissCount());
+        result.put("queryCacheHitCount", statistics.getQueryCacheHitCount());
+        result.put("queryCacheMissCount", statistics.getQueryCacheMissCount());
+        result.put("queryCachePutCount", statistics.getQueryCachePutCount());
+        result.put("regions", regions);
+        return result;
+    }
+    
+    public void clearStatistics() {
+        getStatistics().clear();
+    }
+    
+    private Statistics getStatistics() {
+        return entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+    }
+    
+    private Map<String, Object> toMap(CacheRegionStatistics regionStatistics) {
+        Map<String, Object> region = new LinkedHashMap<>();
+        region.put("hitCount", regionStatistics.getHitCount());
+        region.put("missCount", regionStatistics.getMissCount());
+        region.put("putCount", regionStatistics.getPutCount());
+        return region;
+    }
+}
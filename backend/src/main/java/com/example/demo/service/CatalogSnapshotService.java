@@ -0,0 +1,95 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CatalogSnapshot;
+import com.example.demo.event.ProductCatalogChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.security.MessageDigest;
+import java.security.NoSuchAlgorithmException;
+import java.util.HexFormat;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.zip.GZIPOutputStream;
+
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class CatalogSnapshotService {
+    
+    private final ProductService productService;
+    private final ObjectMapper objectMapper;
+    
+    private final ExecutorService rebuildExecutor = Executors.newSingleThreadExecutor(
+            Thread.ofPlatform().name("catalog-snapshot").daemon().factory());
+    private final AtomicLong catalogVersion = new AtomicLong();
+    private final AtomicBoolean rebuildScheduled = new AtomicBoolean();
+    private volatile CatalogSnapshot snapshot;
+    
+    // Returns null while a rebuild for the latest write is still pending, so callers never serve stale data
+    public CatalogSnapshot getCurrentSnapshot() {
+        CatalogSnapshot current = snapshot;
+        if (current == null || current.version() != catalogVersion.get()) {
+            return null;
+        }
+        return current;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        scheduleRebuild();
+    }
+    
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProductCatalogChangedEvent event) {
+        catalogVersion.incrementAndGet();
+        scheduleRebuild();
+    }
+    
+    @PreDestroy
+    public void shutdown() {
+        rebuildExecutor.shutdownNow();
+    }
+    
+    private void scheduleRebuild() {
+        // Writes arriving while a rebuild is queued are coalesced into that rebuild
+        if (rebuildScheduled.compareAndSet(false, true)) {
+            rebuildExecutor.execute(this::rebuild);
+        }
+    }
+    
+    private void rebuild() {
+        rebuildScheduled.set(false);
+        long version = catalogVersion.get();
+        try {
+            byte[] json = objectMapper.writeValueAsBytes(productService.getAllProducts());
+            snapshot = new CatalogSnapshot(version, etag(json), json, gzip(json));
+            log.debug("Rebuilt catalog snapshot version {} ({} bytes)", version, json.length);
+        } catch (Exception e) {
+            log.warn("Failed to rebuild catalog snapshot version {}", version, e);
+        }
+    }
+    
+    private static String etag(byte[] json) throws NoSuchAlgorithmException {
+        byte[] digest = MessageDigest.getInstance("SHA-256").digest(json);
+        return "\"catalog-" + HexFormat.of().formatHex(digest, 0, 16) + "\"";
+    }
+    
+    private byte[] gzip(byte[] data) throws IOException {
+        ByteArrayOutputStream out = new ByteArrayOutputStream(data.length / 4);
+        try (GZIPOutputStream gzip = new GZIPOutputStream(out)) {
+            gzip.write(data);
+        }
+        return out.toByteArray();
+    }
+}
@@ -0,0 +1,131 @@
+package com.example.demo.service;
+
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import jdk.jfr.Configuration;
+import jdk.jfr.Recording;
+import jdk.jfr.RecordingState;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.text.ParseException;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+// Manages one named JFR recording that carries the custom com.example.demo.* events next to the JDK's own
+@Service
+public class FlightRecorderService {
+    
+    private static final String RECORDING_NAME = "keycloak-demo";
+    
+    @Value("${app.jfr.continuous.enabled:false}")
+    private boolean continuousEnabled;
+    
+    @Value("${app.jfr.settings:default}")
+    private String defaultSettings;
+    
+    @Value("${app.jfr.max-age:30m}")
+    private Duration defaultMaxAge;
+    
+    @Value("${app.jfr.max-size:250MB}")
+    private DataSize defaultMaxSize;
+    
+    private Recording recording;
+    private String recordingSettings;
+    
+    @PostConstruct
+    void startContinuousRecording() {
+        if (continuousEnabled) {
+            startRecording(null, null, null);
+        }
+    }
+    
+    @PreDestroy
+    synchronized void closeRecording() {
+        if (recording != null) {
+            recording.close();
+            recording = null;
+        }
+    }
+    
+    public synchronized Map<String, Object> startRecording(String settings, Duration maxAge, DataSize maxSize) {
+        if (isRunning()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "JFR recording is already running: " + RECORDING_NAME);
+        }
+        if (maxAge != null && (maxAge.isNegative() || maxAge.isZero())) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "JFR max age must be positive: " + maxAge);
+        }
+        if (maxSize != null && maxSize.isNegative()) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "JFR max size must not be negative: " + maxSize);
+        }
+        closeRecording();
+        
+        String settingsName = settings != null ? settings : defaultSettings;
+        Configuration configuration;
+        try {
+            configuration = Configuration.getConfiguration(settingsName);
+        } catch (IOException | ParseException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "JFR settings not found: " + settingsName, e);
+        }
+        
+        // The disk repository keeps a rolling window, bounded by age and size, that can be dumped at any time
+        Recording newRecording = new Recording(configuration);
+        newRecording.setName(RECORDING_NAME);
+        newRecording.setToDisk(true);
+        newRecording.setMaxAge(maxAge != null ? maxAge : defaultMaxAge);
+        newRecording.setMaxSize((maxSize != null ? maxSize : defaultMaxSize).toBytes());
+        newRecording.start();
+        recording = newRecording;
+        recordingSettings = settingsName;
+        return getStatus();
+    }
+    
+    // Writes the recorded window to a temporary file; the caller is responsible for deleting it
+    public synchronized Path dumpRecording() {
+        if (!isRunning()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "No JFR recording is running");
+        }
+        try {
+            Path file = Files.createTempFile(RECORDING_NAME + "-", ".jfr");
+            recording.dump(file);
+            return file;
+        } catch (IOException e) {
+            throw new RuntimeException("Failed to dump JFR recording", e);
+        }
+    }
+    
+    public synchronized Map<String, Object> stopRecording() {
+        if (!isRunning()) {
+            throw new ResponseStatusException(HttpStatus.CONFLICT, "No JFR recording is running");
+        }
+        recording.stop();
+        Map<String, Object> status = getStatus();
+        closeRecording();
+        return status;
+    }
+    
+    public synchronized Map<String, Object> getStatus() {
+        Map<String, Object> status = new LinkedHashMap<>();
+        status.put("name", RECORDING_NAME);
+        status.put("state", recording != null ? recording.getState().name() : "NONE");
+        if (recording != null) {
+            status.put("settings", recordingSettings);
+            status.put("startTime", recording.getStartTime());
+            status.put("maxAge", recording.getMaxAge());
+            status.put("maxSize", recording.getMaxSize());
+            status.put("recordedSize", recording.getSize());
+        }
+        return status;
+    }
+    
+    private boolean isRunning() {
+        return recording != null && recording.getState() == RecordingState.RUNNING;
+    }
+}
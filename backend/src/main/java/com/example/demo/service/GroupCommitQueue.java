@@ -0,0 +1,134 @@
+package com.example.demo.service;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.TimeUnit;
+
+// Funnels concurrent submissions to a single writer thread that hands them over in micro-batches,
+// bounded by size and by how long the first request of a batch may wait
+@Slf4j
+public class GroupCommitQueue<T, R> implements AutoCloseable {
+    
+    // How often an idle writer checks whether the queue was closed
+    private static final long IDLE_POLL_MILLIS = 100;
+    
+    @FunctionalInterface
+    public interface BatchWriter<T, R> {
+        // Must complete every request's result; any left incomplete are failed by the queue
+        void write(List<Request<T, R>> batch);
+    }
+    
+    public record Request<T, R>(T payload, CompletableFuture<R> result) {
+    }
+    
+    private final BlockingQueue<Request<T, R>> queue;
+    private final BatchWriter<T, R> writer;
+    private final int maxBatchSize;
+    private final long maxWaitNanos;
+    private final Thread writerThread;
+    private volatile boolean running = true;
+    
+    public GroupCommitQueue(String name, int maxBatchSize, Duration maxWait, int capacity, BatchWriter<T, R> writer) {
+        this.queue = new LinkedBlockingQueue<>(capacity);
+        this.writer = writer;
+        this.maxBatchSize = maxBatchSize;
+        this.maxWaitNanos = maxWait.toNanos();
+        this.writerThread = Thread.ofPlatform().name(name).daemon().start(this::drainLoop);
+    }
+    
+    public CompletableFuture<R> submit(T payload) {
+        if (!running) {
+            throw new IllegalStateException("Group commit queue is closed");
+        }
+        Request<T, R> request = new Request<>(payload, new CompletableFuture<>());
+        try {
+            queue.put(request);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while queueing request", e);
+        }
+        return request.result();
+    }
+    
+    // Stops accepting requests and lets the writer finish everything already queued. The writer is not
+    // interrupted, since an interrupt in the middle of a batch would fail its database work
+    @Override
+    public void close() {
+        running = false;
+        try {
+            writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        // Only requests that raced with close(), or that the writer had no time left for, remain here
+        List<Request<T, R>> remaining = new ArrayList<>();
+        queue.drainTo(remaining);
+        remaining.forEach(request -> request.result().completeExceptionally(
+                new IllegalStateException("Group commit queue is closed")));
+    }
+    
+    private void drainLoop() {
+        List<Request<T, R>> batch = new ArrayList<>(maxBatchSize);
+        while (running) {
+            try {
+                collectBatch(batch);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                break;
+            }
+            if (!batch.isEmpty()) {
+                writeBatch(batch);
+                batch.clear();
+            }
+        }
+        if (!batch.isEmpty()) {
+            writeBatch(batch);
+            batch.clear();
+        }
+        while (queue.drainTo(batch, maxBatchSize) > 0) {
+            writeBatch(batch);
+            batch.clear();
+        }
+    }
+    
+    private void collectBatch(List<Request<T, R>> batch) throws InterruptedException {
+        Request<T, R> first = queue.poll(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+        if (first == null) {
+            return;
+        }
+        batch.add(first);
+        long deadline = System.nanoTime() + maxWaitNanos;
+        while (batch.size() < maxBatchSize) {
+            queue.drainTo(batch, maxBatchSize - batch.size());
+            long remaining = deadline - System.nanoTime();
+            if (batch.size() >= maxBatchSize || remaining <= 0) {
+                return;
+            }
+            Request<T, R> next = queue.poll(remaining, TimeUnit.NANOSECONDS);
+            if (next == null) {
+                return;
+            }
+            batch.add(next);
+        }
+    }
+    
+    private void writeBatch(List<Request<T, R>> batch) {
+        try {
+            writer.write(batch);
+        } catch (Throwable e) {
+            log.warn("Batch of {} requests failed", batch.size(), e);
+            batch.forEach(request -> request.result().completeExceptionally(e));
+        }
+        for (Request<T, R> request : batch) {
+            if (!request.result().isDone()) {
+                request.result().completeExceptionally(new IllegalStateException("Request was not processed"));
+            }
+        }
+    }
+}
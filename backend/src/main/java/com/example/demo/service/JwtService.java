@@ -1,78 +1,66 @@
 package com.example.demo.service;
 
+import com.example.demo.security.UserAccess;
+import com.example.demo.security.UserContext;
 import org.springframework.security.core.Authentication;
-import org.springframework.security.core.GrantedAuthority;
-import org.springframework.security.oauth2.jwt.Jwt;
-import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
 import org.springframework.stereotype.Service;
 
-import java.util.Collection;
 import java.util.List;
 import java.util.Map;
-import java.util.stream.Collectors;
 
 @Service
 public class JwtService {
 
+    // Built once during JWT conversion; the getters below only read from it
+    public UserContext getUserContext(Authentication authentication) {
+        return UserAccess.getUserContext(authentication);
+    }
+
+    // There is no context for a missing or unauthenticated authentication; the getters then fall back to
+    // the authentication's name or to empty values
     public String getCurrentUsername(Authentication authentication) {
-        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
-            Jwt jwt = jwtAuth.getToken();
-            return jwt.getClaimAsString("preferred_username");
-        }
-        return authentication.getName();
+        UserContext userContext = getUserContext(authentication);
+        String username = userContext != null ? userContext.getUsername() : null;
+        return username != null || authentication == null ? username : authentication.getName();
     }
 
     public String getCurrentUserEmail(Authentication authentication) {
-        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
-            Jwt jwt = jwtAuth.getToken();
-            return jwt.getClaimAsString("email");
-        }
-        return null;
+        UserContext userContext = getUserContext(authentication);
+        return userContext != null ? userContext.getEmail() : null;
     }
 
     public String getCurrentUserFirstName(Authentication authentication) {
-        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
-            Jwt jwt = jwtAuth.getToken();
-            return jwt.getClaimAsString("given_name");
-        }
-        return null;
+        UserContext userContext = getUserContext(authentication);
+        return userContext != null ? userContext.getFirstName() : null;
     }
 
     public String getCurrentUserLastName(Authentication authentication) {
-        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
-            Jwt jwt = jwtAuth.getToken();
-            return jwt.getClaimAsString("family_name");
-        }
-        return null;
+        UserContext userContext = getUserContext(authentication);
+        return userContext != null ? userContext.getLastName() : null;
     }
 
     public List<String> getCurrentUserRoles(Authentication authentication) {
-        return authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .filter(authority -> authority.startsWith("ROLE_"))
-                .map(authority -> authority.substring(5)) // Remove "ROLE_" prefix
-                .collect(Collectors.toList());
+        UserContext userContext = getUserContext(authentication);
+        return userContext != null ? userContext.getRoleNames() : List.of();
     }
 
     public List<String> getCurrentUserGroups(Authentication authentication) {
-        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
-            Jwt jwt = jwtAuth.getToken();
-            @SuppressWarnings("unchecked")
-            List<String> groups = (List<String>) jwt.getClaims().get("groups");
-            return groups != null ? groups : List.of();
-        }
-        return List.of();
+        UserContext userContext = getUserContext(authentication);
+        return userContext != null ? userContext.getGroups() : List.of();
     }
 
     public boolean hasRole(Authentication authentication, String role) {
-        return authentication.getAuthorities().stream()
-                .map(GrantedAuthority::getAuthority)
-                .anyMatch(authority -> authority.equals("ROLE_" + role.toUpperCase()));
+        UserContext userContext = getUserContext(authentication);
+        return userContext != null && userContext.hasRole(role);
     }
 
     public boolean hasAnyRole(Authentication authentication, String... roles) {
+        UserContext userContext = getUserContext(authentication);
+        if (userContext == null) {
+            return false;
+        }
         for (String role : roles) {
-            if (hasRole(authentication, role)) {
+            if (userContext.hasRole(role)) {
                 return true;
             }
         }
@@ -80,21 +68,21 @@ public class JwtService {
     }
 
     public Map<String, Object> getUserInfo(Authentication authentication) {
-        if (authentication instanceof JwtAuthenticationToken jwtAuth) {
-            Jwt jwt = jwtAuth.getToken();
+        UserContext userContext = getUserContext(authentication);
+        if (userContext != null && userContext.getSubject() != null) {
             return Map.of(
-                "username", getCurrentUsername(authentication),
-                "email", getCurrentUserEmail(authentication),
-                "firstName", getCurrentUserFirstName(authentication),
-                "lastName", getCurrentUserLastName(authentication),
-                "roles", getCurrentUserRoles(authentication),
-                "groups", getCurrentUserGroups(authentication),
-                "sub", jwt.getSubject(),
-                "iss", jwt.getIssuer().toString(),
-                "exp", jwt.getExpiresAt(),
-                "iat", jwt.getIssuedAt()
+                "username", userContext.getUsername(),
+                "email", userContext.getEmail(),
+                "firstName", userContext.getFirstName(),
+                "lastName", userContext.getLastName(),
+                "roles", userContext.getRoleNames(),
+                "groups", userContext.getGroups(),
+                "sub", userContext.getSubject(),
+                "iss", userContext.getIssuer(),
+                "exp", userContext.getExpiresAt(),
+                "iat", userContext.getIssuedAt()
             );
         }
-        return Map.of("username", authentication.getName());
+        return authentication != null ? Map.of("username", authentication.getName()) : Map.of();
     }
 }
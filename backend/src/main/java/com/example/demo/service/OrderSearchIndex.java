@@ -0,0 +1,632 @@
+package com.example.demo.service;
+
+import com.example.demo.event.OrderChangedEvent;
+import com.example.demo.repository.OrderRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Locale;
+import java.util.Optional;
+import java.util.PriorityQueue;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory trigram index over order contact fields for support lookups. Names, e-mail addresses and phone
+// numbers are split into words and every word into space-padded trigrams, as pg_trgm does. Each trigram keeps
+// a delta-encoded list of order ordinals (assigned in insert order), so a lookup merges a handful of compact
+// lists and ranks orders by the IDF-weighted share of the query's trigrams they contain.
+@Slf4j
+@Service
+public class OrderSearchIndex {
+    
+    // Space, a-z and 0-9; anything else separates words
+    private static final int ALPHABET = 37;
+    private static final int LOAD_BATCH_SIZE = 10_000;
+    private static final int MAX_QUERY_LENGTH = 64;
+    // Scores are sums of the same weights in different orders, so comparisons allow for rounding
+    private static final double EPSILON = 1e-9;
+    // Deleted orders are dropped from the lists once at least this many, and this share, have piled up
+    private static final int COMPACT_MIN_DELETED = 1024;
+    private static final double COMPACT_DELETED_SHARE = 0.25;
+    
+    public record Hit(long orderId, double score) {
+    }
+    
+    private record Candidate(double score, long orderId) {
+    }
+    
+    private static final Comparator<Candidate> RANKING = Comparator.comparingDouble(Candidate::score)
+            .thenComparingLong(Candidate::orderId);
+    
+    private final OrderRepository orderRepository;
+    private final double minSimilarity;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final PostingList[] postings = new PostingList[ALPHABET * ALPHABET * ALPHABET];
+    private final BitSet deleted = new BitSet();
+    private int deletedCount;
+    // Reused by add(), which only runs under the write lock
+    private final TrigramBuffer indexBuffer = new TrigramBuffer();
+    private long[] orderIds = new long[1024];
+    private final OrdinalMap ordinalsById = new OrdinalMap();
+    private int size;
+    // Written under the write lock; search() reads it without locking so it never waits for a build
+    private volatile boolean built;
+    // Serializes order events, which read the database without holding the index lock
+    private final Object updateLock = new Object();
+    
+    public OrderSearchIndex(OrderRepository orderRepository,
+                            @Value("${app.orders.search.min-similarity:0.3}") double minSimilarity) {
+        this.orderRepository = orderRepository;
+        this.minSimilarity = minSimilarity;
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+    
+    // Contact details are fixed once an order is placed, so an event either adds a new order or removes one.
+    // The contact is read before the write lock is taken so searches never wait on the database; events are
+    // handled one at a time and each reads after its own commit, so a create and a delete cannot cross
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onOrderChanged(OrderChangedEvent event) {
+        // Blocks while a rebuild is loading; before the first build the order is picked up by the build itself
+        if (!isBuilt()) {
+            return;
+        }
+        synchronized (updateLock) {
+            Optional<OrderRepository.Contact> contact = orderRepository.findContactById(event.orderId());
+            lock.writeLock().lock();
+            try {
+                int ordinal = ordinalsById.get(event.orderId());
+                if (contact.isPresent() && ordinal < 0) {
+                    add(contact.get());
+                } else if (contact.isEmpty() && ordinal >= 0) {
+                    remove(ordinal);
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    // Scores are the IDF-weighted share of the query's trigrams an order contains, ties going to the newest
+    // order. Evaluation follows MaxScore, newest ordinal first: lists are ordered rarest first, and a common tail
+    // whose combined weight stays below the threshold cannot qualify an order on its own, so it is only probed
+    // (by skipping) for candidates from the rare lists. The threshold starts at min-similarity and rises to
+    // beat the weakest of the best hits so far; once no order could beat them, the search stops.
+    public List<Hit> search(String query, int limit) {
+        // The index is built at startup; until then searches are refused rather than scanning every order
+        if (!built) {
+            throw new ResponseStatusException(HttpStatus.SERVICE_UNAVAILABLE, "Order search index is still loading");
+        }
+        
+        int[] keys = queryTrigrams(query);
+        if (keys.length == 0) {
+            return List.of();
+        }
+        
+        lock.readLock().lock();
+        try {
+            PostingList[] lists = new PostingList[keys.length];
+            for (int i = 0; i < keys.length; i++) {
+                lists[i] = postings[keys[i]] != null ? postings[keys[i]] : PostingList.EMPTY;
+            }
+            Arrays.sort(lists, Comparator.comparingInt(PostingList::count));
+            
+            double[] weights = new double[lists.length];
+            PostingList.Cursor[] cursors = new PostingList.Cursor[lists.length];
+            for (int i = 0; i < lists.length; i++) {
+                weights[i] = Math.log(1.0 + (double) size / (lists[i].count() + 1));
+                cursors[i] = lists[i].cursor();
+            }
+            // tailWeights[i]: the most an order can score from lists i and later
+            double[] tailWeights = new double[lists.length + 1];
+            for (int i = lists.length - 1; i >= 0; i--) {
+                tailWeights[i] = tailWeights[i + 1] + weights[i];
+            }
+            double totalWeight = tailWeights[0];
+            
+            double threshold = minSimilarity * totalWeight - EPSILON;
+            int essential = essentialLists(tailWeights, threshold);
+            PriorityQueue<Candidate> top = new PriorityQueue<>(limit + 1, RANKING);
+            while (essential > 0) {
+                int ordinal = -1;
+                for (int i = 0; i < essential; i++) {
+                    ordinal = Math.max(ordinal, cursors[i].current());
+                }
+                if (ordinal < 0) {
+                    break;
+                }
+                
+                double score = 0;
+                for (int i = 0; i < essential; i++) {
+                    if (cursors[i].current() == ordinal) {
+                        score += weights[i];
+                        cursors[i].next();
+                    }
+                }
+                for (int i = essential; i < lists.length && score + tailWeights[i] >= threshold; i++) {
+                    if (cursors[i].advance(ordinal) == ordinal) {
+                        score += weights[i];
+                    }
+                }
+                if (score < threshold || deleted.get(ordinal)) {
+                    continue;
+                }
+                
+                // Ordinals are visited newest first, so a later candidate has to score strictly higher
+                top.add(new Candidate(score, orderIds[ordinal]));
+                if (top.size() > limit) {
+                    top.poll();
+                }
+                if (top.size() == limit) {
+                    threshold = Math.max(threshold, top.peek().score() + EPSILON);
+                    essential = essentialLists(tailWeights, threshold);
+                }
+            }
+            
+            List<Hit> hits = new ArrayList<>(top.size());
+            while (!top.isEmpty()) {
+                Candidate candidate = top.poll();
+                hits.add(new Hit(candidate.orderId(), Math.round(candidate.score() / totalWeight * 1000) / 1000.0));
+            }
+            return hits.reversed();
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Number of leading (rarest) lists an order has to appear in to be able to reach the threshold
+    private static int essentialLists(double[] tailWeights, double threshold) {
+        int essential = tailWeights.length - 1;
+        while (essential > 0 && tailWeights[essential - 1] < threshold) {
+            essential--;
+        }
+        return essential;
+    }
+    
+    // Loads contacts in id-ordered pages under the write lock so orders placed meanwhile are applied after it
+    private void rebuild() {
+        lock.writeLock().lock();
+        try {
+            long start = System.nanoTime();
+            Arrays.fill(postings, null);
+            deleted.clear();
+            deletedCount = 0;
+            ordinalsById.clear();
+            size = 0;
+    
+            long lastId = 0;
+            List<OrderRepository.Contact> page;
+            do {
+                page = orderRepository.findByIdGreaterThanOrderByIdAsc(lastId, Limit.of(LOAD_BATCH_SIZE));
+                for (OrderRepository.Contact contact : page) {
+                    add(contact);
+                    lastId = contact.id();
+                }
+            } while (page.size() == LOAD_BATCH_SIZE);
+            built = true;
+            log.debug("Built order search index with {} orders in {} ms", size, (System.nanoTime() - start) / 1_000_000);
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private boolean isBuilt() {
+        lock.readLock().lock();
+        try {
+            return built;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    private void add(OrderRepository.Contact contact) {
+        if (size == orderIds.length) {
+            orderIds = Arrays.copyOf(orderIds, size * 2);
+        }
+    
+        int[] keys = contactTrigrams(contact, indexBuffer);
+        int ordinal = size++;
+        orderIds[ordinal] = contact.id();
+        ordinalsById.put(contact.id(), ordinal);
+        for (int key : keys) {
+            if (postings[key] == null) {
+                postings[key] = new PostingList();
+            }
+            postings[key].add(ordinal);
+        }
+    }
+    
+    // Deleted ordinals stay in the lists (and are skipped by search) until enough have piled up; then the live
+    // orders are renumbered in their existing order and every list is rewritten without the deleted ones
+    private void remove(int ordinal) {
+        if (deleted.get(ordinal)) {
+            return;
+        }
+        deleted.set(ordinal);
+        deletedCount++;
+        if (deletedCount < COMPACT_MIN_DELETED || deletedCount < size * COMPACT_DELETED_SHARE) {
+            return;
+        }
+        
+        int[] renumbered = new int[size];
+        int live = 0;
+        ordinalsById.clear();
+        for (int old = 0; old < size; old++) {
+            if (deleted.get(old)) {
+                renumbered[old] = -1;
+            } else {
+                renumbered[old] = live;
+                orderIds[live] = orderIds[old];
+                ordinalsById.put(orderIds[live], live);
+                live++;
+            }
+        }
+        for (int key = 0; key < postings.length; key++) {
+            if (postings[key] != null) {
+                PostingList compacted = postings[key].renumber(renumbered);
+                postings[key] = compacted.count() > 0 ? compacted : null;
+            }
+        }
+        log.debug("Compacted order search index from {} to {} orders", size, live);
+        size = live;
+        deleted.clear();
+        deletedCount = 0;
+    }
+    
+    static int[] contactTrigrams(OrderRepository.Contact contact) {
+        return contactTrigrams(contact, new TrigramBuffer());
+    }
+    
+    private static int[] contactTrigrams(OrderRepository.Contact contact, TrigramBuffer trigrams) {
+        trigrams.clear();
+        addWords(contact.customerName(), true, trigrams);
+        addWords(contact.customerEmail(), true, trigrams);
+        // Phone numbers are indexed as one run of digits so "555 0101" and "555-0101" find the same order
+        addWords(contact.customerPhone() != null ? digitsOf(contact.customerPhone()) : null, true, trigrams);
+        return trigrams.distinct();
+    }
+    
+    // A query made of digits and phone punctuation matches anywhere inside a number, so it is not padded;
+    // otherwise the last word is left open at the end to match names that are still being typed
+    static int[] queryTrigrams(String query) {
+        if (query == null) {
+            return new int[0];
+        }
+        String trimmed = query.strip();
+        if (trimmed.length() > MAX_QUERY_LENGTH) {
+            trimmed = trimmed.substring(0, MAX_QUERY_LENGTH);
+        }
+    
+        TrigramBuffer trigrams = new TrigramBuffer();
+        if (trimmed.matches("[\\d\\s()+\\-.]+")) {
+            String digits = digitsOf(trimmed);
+            for (int i = 0; i + 3 <= digits.length(); i++) {
+                trigrams.add(key(code(digits.charAt(i)), code(digits.charAt(i + 1)), code(digits.charAt(i + 2))));
+            }
+        } else {
+            addWords(trimmed, false, trigrams);
+        }
+        return trigrams.distinct();
+    }
+    
+    private static void addWords(String text, boolean closeLastWord, TrigramBuffer trigrams) {
+        if (text == null || text.isBlank()) {
+            return;
+        }
+        // Decomposing accented letters leaves the base letter plus a combining mark, which is skipped
+        String normalized = (isAscii(text) ? text : Normalizer.normalize(text, Normalizer.Form.NFD)).toLowerCase(Locale.ROOT);
+        
+        int[] word = new int[normalized.length()];
+        int length = 0;
+        boolean ended = false;
+        for (int i = 0; i < normalized.length(); i++) {
+            char c = normalized.charAt(i);
+            int code = code(c);
+            if (code > 0) {
+                if (ended) {
+                    addWord(word, length, true, trigrams);
+                    length = 0;
+                    ended = false;
+                }
+                word[length++] = code;
+            } else if (length > 0 && Character.getType(c) != Character.NON_SPACING_MARK) {
+                ended = true;
+            }
+        }
+        if (length > 0) {
+            addWord(word, length, closeLastWord, trigrams);
+        }
+    }
+    
+    // "  w", " wi", "wil", ..., "on " for a word padded with two spaces in front and, if closed, one behind
+    private static void addWord(int[] letters, int length, boolean closed, TrigramBuffer trigrams) {
+        int padded = length + (closed ? 3 : 2);
+        for (int i = 0; i + 3 <= padded; i++) {
+            trigrams.add(key(paddedCode(letters, length, i - 2), paddedCode(letters, length, i - 1),
+                    paddedCode(letters, length, i)));
+        }
+    }
+    
+    private static boolean isAscii(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= 0x80) {
+                return false;
+            }
+        }
+        return true;
+    }
+    
+    private static String digitsOf(String text) {
+        StringBuilder digits = new StringBuilder(text.length());
+        for (int i = 0; i < text.length(); i++) {
+            if (text.charAt(i) >= '0' && text.charAt(i) <= '9') {
+                digits.append(text.charAt(i));
+            }
+        }
+        return digits.toString();
+    }
+    
+    private static int paddedCode(int[] letters, int length, int index) {
+        return index >= 0 && index < length ? letters[index] : 0;
+    }
+    
+    private static int code(char c) {
+        if (c >= 'a' && c <= 'z') {
+            return 1 + c - 'a';
+        }
+        if (c >= '0' && c <= '9') {
+            return 27 + c - '0';
+        }
+        return 0;
+    }
+    
+    private static int key(int first, int second, int third) {
+        return (first * ALPHABET + second) * ALPHABET + third;
+    }
+    
+    private static final class TrigramBuffer {
+        private int[] keys = new int[64];
+        private int length;
+    
+        void clear() {
+            length = 0;
+        }
+        
+        void add(int key) {
+            if (length == keys.length) {
+                keys = Arrays.copyOf(keys, length * 2);
+            }
+            keys[length++] = key;
+        }
+    
+        int[] distinct() {
+            int[] sorted = Arrays.copyOf(keys, length);
+            Arrays.sort(sorted);
+            int unique = 0;
+            for (int i = 0; i < sorted.length; i++) {
+                if (i == 0 || sorted[i] != sorted[i - 1]) {
+                    sorted[unique++] = sorted[i];
+                }
+            }
+            return Arrays.copyOf(sorted, unique);
+        }
+    }
+    
+    // Order id to ordinal by open addressing. Ids arrive mostly ascending, but orders committed out of order
+    // break the sort, so the ordinal-indexed id array cannot be binary searched
+    private static final class OrdinalMap {
+        // Order ids are positive, so 0 marks an empty slot
+        private long[] keys = new long[1024];
+        private int[] values = new int[1024];
+        private int size;
+        
+        int get(long key) {
+            int mask = keys.length - 1;
+            for (int slot = slot(key, mask); keys[slot] != 0; slot = (slot + 1) & mask) {
+                if (keys[slot] == key) {
+                    return values[slot];
+                }
+            }
+            return -1;
+        }
+        
+        void put(long key, int value) {
+            if ((size + 1) * 2 > keys.length) {
+                resize(keys.length * 2);
+            }
+            int mask = keys.length - 1;
+            int slot = slot(key, mask);
+            while (keys[slot] != 0 && keys[slot] != key) {
+                slot = (slot + 1) & mask;
+            }
+            if (keys[slot] == 0) {
+                size++;
+            }
+            keys[slot] = key;
+            values[slot] = value;
+        }
+        
+        void clear() {
+            keys = new long[1024];
+            values = new int[1024];
+            size = 0;
+        }
+        
+        private void resize(int capacity) {
+            long[] oldKeys = keys;
+            int[] oldValues = values;
+            keys = new long[capacity];
+            values = new int[capacity];
+            size = 0;
+            for (int i = 0; i < oldKeys.length; i++) {
+                if (oldKeys[i] != 0) {
+                    put(oldKeys[i], oldValues[i]);
+                }
+            }
+        }
+        
+        private static int slot(long key, int mask) {
+            return (int) ((key * 0x9E3779B97F4A7C15L) >>> 32) & mask;
+        }
+    }
+    
+    // Ascending ordinals stored as varint gaps, with a skip entry every SKIP_INTERVAL postings so a cursor
+    // can jump over whole blocks of a common trigram's list while probing it for a rare candidate
+    static final class PostingList {
+        static final PostingList EMPTY = new PostingList();
+        static final int SKIP_INTERVAL = 128;
+        
+        private byte[] data = new byte[8];
+        private int length;
+        private int count;
+        private int last = -1;
+        // Per block: its first ordinal, the ordinal before it and the byte offset of its first gap
+        private int[] skipOrdinals = new int[1];
+        private int[] skipBases = new int[1];
+        private int[] skipOffsets = new int[1];
+        
+        int count() {
+            return count;
+        }
+        
+        void add(int ordinal) {
+            if (count % SKIP_INTERVAL == 0) {
+                int block = count / SKIP_INTERVAL;
+                if (block == skipOrdinals.length) {
+                    skipOrdinals = Arrays.copyOf(skipOrdinals, block * 2);
+                    skipBases = Arrays.copyOf(skipBases, block * 2);
+                    skipOffsets = Arrays.copyOf(skipOffsets, block * 2);
+                }
+                skipOrdinals[block] = ordinal;
+                skipBases[block] = last;
+                skipOffsets[block] = length;
+            }
+            if (length + 5 > data.length) {
+                data = Arrays.copyOf(data, data.length * 2);
+            }
+            int gap = ordinal - last;
+            while (gap >= 0x80) {
+                data[length++] = (byte) (gap | 0x80);
+                gap >>>= 7;
+            }
+            data[length++] = (byte) gap;
+            last = ordinal;
+            count++;
+        }
+        
+        // A new list with every ordinal replaced by renumbered[ordinal], dropping those mapped to -1; the
+        // mapping must keep the remaining ordinals in ascending order
+        PostingList renumber(int[] renumbered) {
+            PostingList list = new PostingList();
+            int position = 0;
+            int ordinal = -1;
+            for (int i = 0; i < count; i++) {
+                int gap = 0;
+                int shift = 0;
+                byte b;
+                do {
+                    b = data[position++];
+                    gap |= (b & 0x7F) << shift;
+                    shift += 7;
+                } while (b < 0);
+                ordinal += gap;
+                if (renumbered[ordinal] >= 0) {
+                    list.add(renumbered[ordinal]);
+                }
+            }
+            return list;
+        }
+        
+        Cursor cursor() {
+            return new Cursor();
+        }
+        
+        // Walks the list from the newest ordinal down, one decoded block at a time; current() is -1 once exhausted
+        final class Cursor {
+            private final int[] buffer = new int[SKIP_INTERVAL];
+            private int block = (count + SKIP_INTERVAL - 1) / SKIP_INTERVAL;
+            private int offset;
+            private int current = -1;
+            
+            Cursor() {
+                if (block > 0) {
+                    load(--block);
+                }
+            }
+            
+            int current() {
+                return current;
+            }
+            
+            void next() {
+                if (offset > 0) {
+                    current = buffer[--offset];
+                } else if (block > 0) {
+                    load(--block);
+                } else {
+                    current = -1;
+                }
+            }
+            
+            // Moves to the largest ordinal <= target and returns it
+            int advance(int target) {
+                if (current <= target) {
+                    return current;
+                }
+                if (buffer[0] > target) {
+                    int found = Arrays.binarySearch(skipOrdinals, 0, block, target);
+                    found = found >= 0 ? found : -found - 2;
+                    if (found < 0) {
+                        block = 0;
+                        offset = 0;
+                        current = -1;
+                        return current;
+                    }
+                    load(block = found);
+                }
+                while (buffer[offset] > target) {
+                    offset--;
+                }
+                current = buffer[offset];
+                return current;
+            }
+            
+            private void load(int index) {
+                int blockCount = Math.min(SKIP_INTERVAL, count - index * SKIP_INTERVAL);
+                int position = skipOffsets[index];
+                int ordinal = skipBases[index];
+                for (int i = 0; i < blockCount; i++) {
+                    int gap = 0;
+                    int shift = 0;
+                    byte b;
+                    do {
+                        b = data[position++];
+                        gap |= (b & 0x7F) << shift;
+                        shift += 7;
+                    } while (b < 0);
+                    ordinal += gap;
+                    buffer[i] = ordinal;
+                }
+                offset = blockCount - 1;
+                current = buffer[offset];
+            }
+        }
+    }
+}
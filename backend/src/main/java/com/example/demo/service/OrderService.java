@@ -2,24 +2,72 @@ package com.example.demo.service;
 
 import com.example.demo.dto.OrderDto;
 import com.example.demo.dto.OrderItemDto;
+import com.example.demo.dto.OrderSearchHitDto;
 import com.example.demo.entity.Order;
 import com.example.demo.entity.OrderItem;
 import com.example.demo.entity.Product;
+import com.example.demo.event.OrderChangedEvent;
+import com.example.demo.jfr.OrderConversionEvent;
+import com.example.demo.jfr.OrderCreateEvent;
 import com.example.demo.repository.OrderRepository;
 import com.example.demo.repository.ProductRepository;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.support.TransactionTemplate;
 
 import java.math.BigDecimal;
+import java.time.Duration;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.function.Function;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class OrderService {
     
+    private static final int MAX_SEARCH_RESULTS = 50;
+    
     private final OrderRepository orderRepository;
     private final ProductRepository productRepository;
+    private final TransactionTemplate transactionTemplate;
+    private final OrderSearchIndex orderSearchIndex;
+    private final ApplicationEventPublisher eventPublisher;
+    
+    @Value("${app.orders.group-commit.enabled:false}")
+    private boolean groupCommitEnabled;
+    
+    @Value("${app.orders.group-commit.max-batch-size:64}")
+    private int groupCommitMaxBatchSize;
+    
+    @Value("${app.orders.group-commit.max-wait:5ms}")
+    private Duration groupCommitMaxWait;
+    
+    @Value("${app.orders.group-commit.queue-capacity:4096}")
+    private int groupCommitQueueCapacity;
+    
+    private GroupCommitQueue<OrderDto, OrderDto> groupCommitQueue;
+    
+    @PostConstruct
+    void startGroupCommit() {
+        if (groupCommitEnabled) {
+            groupCommitQueue = new GroupCommitQueue<>("order-group-commit", groupCommitMaxBatchSize,
+                    groupCommitMaxWait, groupCommitQueueCapacity, this::saveOrderBatch);
+        }
+    }
+    
+    @PreDestroy
+    void stopGroupCommit() {
+        if (groupCommitQueue != null) {
+            groupCommitQueue.close();
+        }
+    }
     
     public List<OrderDto> getAllOrders() {
         return orderRepository.findAll().stream()
@@ -34,11 +82,77 @@ public class OrderService {
     }
     
     public OrderDto createOrder(OrderDto orderDto) {
+        OrderCreateEvent event = new OrderCreateEvent();
+        event.begin();
+        try {
+            OrderDto createdOrder = groupCommitQueue != null ? submitToGroupCommit(orderDto) : saveOrder(orderDto);
+            event.setOrderId(createdOrder.getId());
+            return createdOrder;
+        } catch (RuntimeException e) {
+            event.setFailure(e.getMessage());
+            throw e;
+        } finally {
+            event.setItemCount(orderDto.getOrderItems() != null ? orderDto.getOrderItems().size() : 0);
+            event.setGroupCommit(groupCommitQueue != null);
+            event.commit();
+        }
+    }
+    
+    private OrderDto submitToGroupCommit(OrderDto orderDto) {
+        try {
+            return groupCommitQueue.submit(orderDto).join();
+        } catch (CompletionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw e;
+        }
+    }
+    
+    private OrderDto saveOrder(OrderDto orderDto) {
         Order order = convertToEntity(orderDto);
         Order savedOrder = orderRepository.save(order);
+        eventPublisher.publishEvent(new OrderChangedEvent(savedOrder.getId()));
         return convertToDto(savedOrder);
     }
     
+    // Inserts a micro-batch of orders in one transaction. Invalid orders fail on their own; if the
+    // transaction itself fails, the remaining orders are retried one by one so no caller inherits another's error
+    private void saveOrderBatch(List<GroupCommitQueue.Request<OrderDto, OrderDto>> batch) {
+        List<GroupCommitQueue.Request<OrderDto, OrderDto>> accepted = new ArrayList<>(batch.size());
+        List<Order> savedOrders;
+        try {
+            savedOrders = transactionTemplate.execute(status -> {
+                List<Order> orders = new ArrayList<>(batch.size());
+                for (GroupCommitQueue.Request<OrderDto, OrderDto> request : batch) {
+                    try {
+                        orders.add(convertToEntity(request.payload()));
+                        accepted.add(request);
+                    } catch (RuntimeException e) {
+                        request.result().completeExceptionally(e);
+                    }
+                }
+                List<Order> saved = orderRepository.saveAll(orders);
+                orderRepository.flush();
+                saved.forEach(order -> eventPublisher.publishEvent(new OrderChangedEvent(order.getId())));
+                return saved;
+            });
+        } catch (RuntimeException e) {
+            for (GroupCommitQueue.Request<OrderDto, OrderDto> request : accepted) {
+                try {
+                    request.result().complete(saveOrder(request.payload()));
+                } catch (RuntimeException retryFailure) {
+                    request.result().completeExceptionally(retryFailure);
+                }
+            }
+            return;
+        }
+        
+        for (int i = 0; i < accepted.size(); i++) {
+            accepted.get(i).result().complete(convertToDto(savedOrders.get(i)));
+        }
+    }
+    
     public OrderDto updateOrderStatus(Long id, Order.OrderStatus status) {
         Order existingOrder = orderRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Order not found with id: " + id));
@@ -53,6 +167,7 @@ public class OrderService {
             throw new RuntimeException("Order not found with id: " + id);
         }
         orderRepository.deleteById(id);
+        eventPublisher.publishEvent(new OrderChangedEvent(id));
     }
     
     public List<OrderDto> getOrdersByStatus(Order.OrderStatus status) {
@@ -67,11 +182,34 @@ public class OrderService {
                 .collect(Collectors.toList());
     }
     
+    // Ranked fuzzy lookup across customer name, e-mail and phone; the index picks the ids, the orders are then
+    // loaded in one query and returned in rank order
+    public List<OrderSearchHitDto> searchOrders(String query, int limit) {
+        List<OrderSearchIndex.Hit> hits = orderSearchIndex.search(query, Math.min(Math.max(limit, 1), MAX_SEARCH_RESULTS));
+        Map<Long, Order> ordersById = orderRepository.findAllById(hits.stream().map(OrderSearchIndex.Hit::orderId).toList())
+                .stream()
+                .collect(Collectors.toMap(Order::getId, Function.identity()));
+        
+        List<OrderSearchHitDto> results = new ArrayList<>(hits.size());
+        for (OrderSearchIndex.Hit hit : hits) {
+            Order order = ordersById.get(hit.orderId());
+            if (order != null) {
+                results.add(new OrderSearchHitDto(convertToDto(order), hit.score()));
+            }
+        }
+        return results;
+    }
+    
     private OrderDto convertToDto(Order order) {
+        OrderConversionEvent event = new OrderConversionEvent();
+        event.begin();
         List<OrderItemDto> orderItemDtos = order.getOrderItems().stream()
                 .map(this::convertOrderItemToDto)
                 .collect(Collectors.toList());
         
+        event.setOrderId(order.getId() != null ? order.getId() : 0);
+        event.setItemCount(orderItemDtos.size());
+        event.commit();
         return new OrderDto(
                 order.getId(),
                 order.getCustomerName(),
@@ -0,0 +1,398 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PriceBucketDto;
+import com.example.demo.dto.ProductBrowseDto;
+import com.example.demo.dto.ProductDto;
+import com.example.demo.event.ProductCatalogChangedEvent;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.event.TransactionalEventListener;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Optional;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReadWriteLock;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+// In-memory facet index over the catalog. Each product gets an ordinal (assigned in id order) and every
+// category, price bucket and the in-stock flag is a BitSet of ordinals, so filters are ANDs and facet
+// counts are cardinalities instead of GROUP BY queries. ProductService writes update single entries.
+@Slf4j
+@Service
+public class ProductFacetIndex {
+    
+    // Deleted slots are reclaimed once they make up this share of all ordinals
+    private static final int COMPACT_MIN_FREE = 1024;
+    private static final double COMPACT_FREE_SHARE = 0.25;
+    
+    private final ProductService productService;
+    private final List<BigDecimal> priceBounds;
+    
+    private final ReadWriteLock lock = new ReentrantReadWriteLock();
+    private final List<ProductDto> products = new ArrayList<>();
+    private final Map<Long, Integer> ordinalsById = new HashMap<>();
+    private final BitSet live = new BitSet();
+    private final BitSet inStock = new BitSet();
+    private final Map<String, BitSet> byCategory = new TreeMap<>();
+    private final BitSet[] byPriceBucket;
+    // Live ordinals sorted by (price, ordinal), so an arbitrary price range is a binary search and a slice
+    private int[] ordinalsByPrice = new int[0];
+    private int priceOrderSize;
+    private boolean built;
+    // Serializes catalog events, which read the database without holding the index lock
+    private final Object updateLock = new Object();
+    
+    public ProductFacetIndex(ProductService productService,
+                             @Value("${app.catalog.facets.price-buckets:50,100,250,500,1000}") List<BigDecimal> priceBounds) {
+        this.productService = productService;
+        this.priceBounds = priceBounds.stream().sorted().toList();
+        this.byPriceBucket = new BitSet[this.priceBounds.size() + 1];
+        for (int i = 0; i < byPriceBucket.length; i++) {
+            byPriceBucket[i] = new BitSet();
+        }
+    }
+    
+    @EventListener(ApplicationReadyEvent.class)
+    public void onApplicationReady() {
+        rebuild();
+    }
+    
+    // The product is read before the write lock is taken, so browses never wait on the database. Events are
+    // handled one at a time and each reads after its own commit, so the last one applies the newest state
+    @TransactionalEventListener(fallbackExecution = true)
+    public void onCatalogChanged(ProductCatalogChangedEvent event) {
+        // Blocks while a rebuild is loading; before the first build the change is picked up by the build itself
+        if (!isBuilt()) {
+            return;
+        }
+        synchronized (updateLock) {
+            Optional<ProductDto> product = productService.findProductById(event.productId());
+            lock.writeLock().lock();
+            try {
+                if (product.isPresent()) {
+                    put(product.get());
+                } else {
+                    remove(event.productId());
+                }
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+    }
+    
+    // Facets are disjunctive: each dimension is counted with every filter applied except its own,
+    // so a filter panel can show how many products selecting another value would add
+    public ProductBrowseDto browse(Collection<String> categories, BigDecimal minPrice, BigDecimal maxPrice,
+                                   boolean inStockOnly, int page, int size) {
+        int offset;
+        try {
+            offset = Math.multiplyExact(page, size);
+        } catch (ArithmeticException e) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Page " + page + " is out of range");
+        }
+        if (!isBuilt()) {
+            rebuild();
+        }
+        
+        lock.readLock().lock();
+        try {
+            BitSet categoryFilter = categoryFilter(categories);
+            BitSet priceFilter = priceFilter(minPrice, maxPrice);
+            BitSet stockFilter = inStockOnly ? inStock : live;
+            
+            BitSet matches = intersect(categoryFilter, priceFilter, stockFilter);
+            
+            BitSet scratch = new BitSet(products.size());
+            BitSet withoutCategory = intersect(priceFilter, stockFilter);
+            Map<String, Integer> categoryCounts = new LinkedHashMap<>();
+            byCategory.forEach((category, ordinals) -> {
+                int count = countIntersection(withoutCategory, ordinals, scratch);
+                if (count > 0) {
+                    categoryCounts.put(category, count);
+                }
+            });
+            
+            BitSet withoutPrice = intersect(categoryFilter, stockFilter);
+            List<PriceBucketDto> priceBuckets = new ArrayList<>(byPriceBucket.length);
+            for (int i = 0; i < byPriceBucket.length; i++) {
+                priceBuckets.add(new PriceBucketDto(
+                        i == 0 ? BigDecimal.ZERO : priceBounds.get(i - 1),
+                        i < priceBounds.size() ? priceBounds.get(i) : null,
+                        countIntersection(withoutPrice, byPriceBucket[i], scratch)));
+            }
+            
+            int inStockCount = countIntersection(intersect(categoryFilter, priceFilter), inStock, scratch);
+            
+            return new ProductBrowseDto(page(matches, offset, size), matches.cardinality(), page, size,
+                    categoryCounts, priceBuckets, inStockCount);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Runs under the write lock so writes that commit during the load are applied after it, not lost
+    private void rebuild() {
+        lock.writeLock().lock();
+        try {
+            List<ProductDto> catalog = new ArrayList<>(productService.getAllProducts());
+            catalog.sort(Comparator.comparing(ProductDto::getId));
+            load(catalog);
+            built = true;
+            log.debug("Built product facet index with {} products and {} categories", catalog.size(), byCategory.size());
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+    
+    private boolean isBuilt() {
+        lock.readLock().lock();
+        try {
+            return built;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+    
+    // Assigns ordinals 0..n-1 to a catalog in id order and sorts the price order once
+    private void load(List<ProductDto> catalog) {
+        products.clear();
+        ordinalsById.clear();
+        live.clear();
+        inStock.clear();
+        byCategory.clear();
+        for (BitSet bucket : byPriceBucket) {
+            bucket.clear();
+        }
+        
+        for (ProductDto product : catalog) {
+            int ordinal = products.size();
+            products.add(product);
+            ordinalsById.put(product.getId(), ordinal);
+            setFacets(ordinal, product);
+        }
+        ordinalsByPrice = live.stream()
+                .boxed()
+                .sorted(Comparator.comparing((Integer ordinal) -> products.get(ordinal).getPrice()).thenComparing(ordinal -> ordinal))
+                .mapToInt(Integer::intValue)
+                .toArray();
+        priceOrderSize = ordinalsByPrice.length;
+    }
+    
+    // Updates keep their ordinal and new products are appended, so ordinal order stays id order. Concurrent
+    // creates can commit out of id order; a product that arrives behind a higher id is rare enough to reload for
+    private void put(ProductDto product) {
+        Integer existing = ordinalsById.get(product.getId());
+        int ordinal;
+        if (existing != null) {
+            ordinal = existing;
+            clearFacets(ordinal);
+            products.set(ordinal, product);
+        } else if (product.getId() > lastId()) {
+            ordinal = products.size();
+            products.add(product);
+            ordinalsById.put(product.getId(), ordinal);
+        } else {
+            List<ProductDto> catalog = new ArrayList<>(products.stream().filter(Objects::nonNull).toList());
+            catalog.add(product);
+            catalog.sort(Comparator.comparing(ProductDto::getId));
+            load(catalog);
+            return;
+        }
+        setFacets(ordinal, product);
+        insertPriceOrder(ordinal);
+    }
+    
+    private long lastId() {
+        for (int ordinal = products.size() - 1; ordinal >= 0; ordinal--) {
+            if (products.get(ordinal) != null) {
+                return products.get(ordinal).getId();
+            }
+        }
+        return Long.MIN_VALUE;
+    }
+    
+    private void setFacets(int ordinal, ProductDto product) {
+        live.set(ordinal);
+        byCategory.computeIfAbsent(product.getCategory(), category -> new BitSet()).set(ordinal);
+        byPriceBucket[priceBucket(product.getPrice())].set(ordinal);
+        if (product.getStockQuantity() != null && product.getStockQuantity() > 0) {
+            inStock.set(ordinal);
+        }
+    }
+    
+    // Deleted slots stay empty until enough have piled up, then the live products are renumbered in place;
+    // reusing single slots would break the id order that paging relies on
+    private void remove(Long productId) {
+        Integer ordinal = ordinalsById.remove(productId);
+        if (ordinal == null) {
+            return;
+        }
+        clearFacets(ordinal);
+        products.set(ordinal, null);
+        int free = products.size() - ordinalsById.size();
+        if (free >= COMPACT_MIN_FREE && free >= products.size() * COMPACT_FREE_SHARE) {
+            load(products.stream().filter(Objects::nonNull).toList());
+            log.debug("Compacted product facet index to {} products", products.size());
+        }
+    }
+    
+    private void clearFacets(int ordinal) {
+        ProductDto product = products.get(ordinal);
+        removePriceOrder(ordinal);
+        live.clear(ordinal);
+        inStock.clear(ordinal);
+        byPriceBucket[priceBucket(product.getPrice())].clear(ordinal);
+        BitSet category = byCategory.get(product.getCategory());
+        category.clear(ordinal);
+        if (category.isEmpty()) {
+            byCategory.remove(product.getCategory());
+        }
+    }
+    
+    private void insertPriceOrder(int ordinal) {
+        int position = -(pricePosition(ordinal) + 1);
+        if (priceOrderSize == ordinalsByPrice.length) {
+            ordinalsByPrice = Arrays.copyOf(ordinalsByPrice, Math.max(16, priceOrderSize * 3 / 2));
+        }
+        System.arraycopy(ordinalsByPrice, position, ordinalsByPrice, position + 1, priceOrderSize - position);
+        ordinalsByPrice[position] = ordinal;
+        priceOrderSize++;
+    }
+    
+    private void removePriceOrder(int ordinal) {
+        int position = pricePosition(ordinal);
+        System.arraycopy(ordinalsByPrice, position + 1, ordinalsByPrice, position, priceOrderSize - position - 1);
+        priceOrderSize--;
+    }
+    
+    // Binary search for the ordinal's (price, ordinal) entry; negative as in Arrays.binarySearch when absent
+    private int pricePosition(int ordinal) {
+        BigDecimal price = products.get(ordinal).getPrice();
+        int low = 0;
+        int high = priceOrderSize - 1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            int other = ordinalsByPrice[mid];
+            int cmp = products.get(other).getPrice().compareTo(price);
+            if (cmp == 0) {
+                cmp = Integer.compare(other, ordinal);
+            }
+            if (cmp < 0) {
+                low = mid + 1;
+            } else if (cmp > 0) {
+                high = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(low + 1);
+    }
+    
+    // First position in the price order whose price is above the bound (inclusive: at or above it)
+    private int priceBoundary(BigDecimal bound, boolean inclusive) {
+        int low = 0;
+        int high = priceOrderSize;
+        while (low < high) {
+            int mid = (low + high) >>> 1;
+            int cmp = products.get(ordinalsByPrice[mid]).getPrice().compareTo(bound);
+            if (cmp < 0 || (cmp == 0 && !inclusive)) {
+                low = mid + 1;
+            } else {
+                high = mid;
+            }
+        }
+        return low;
+    }
+    
+    private int priceBucket(BigDecimal price) {
+        for (int i = 0; i < priceBounds.size(); i++) {
+            if (price.compareTo(priceBounds.get(i)) < 0) {
+                return i;
+            }
+        }
+        return priceBounds.size();
+    }
+    
+    private BitSet categoryFilter(Collection<String> categories) {
+        if (categories == null || categories.isEmpty()) {
+            return live;
+        }
+        BitSet filter = new BitSet();
+        for (String category : categories) {
+            BitSet ordinals = byCategory.get(category);
+            if (ordinals != null) {
+                filter.or(ordinals);
+            }
+        }
+        return filter;
+    }
+    
+    private BitSet priceFilter(BigDecimal minPrice, BigDecimal maxPrice) {
+        if (minPrice == null && maxPrice == null) {
+            return live;
+        }
+        int from = minPrice != null ? priceBoundary(minPrice, true) : 0;
+        int to = maxPrice != null ? Math.max(from, priceBoundary(maxPrice, false)) : priceOrderSize;
+        // Touches whichever is smaller: the products in the range or the ones outside it
+        if (to - from <= priceOrderSize / 2) {
+            BitSet filter = new BitSet(products.size());
+            for (int i = from; i < to; i++) {
+                filter.set(ordinalsByPrice[i]);
+            }
+            return filter;
+        }
+        BitSet filter = (BitSet) live.clone();
+        for (int i = 0; i < from; i++) {
+            filter.clear(ordinalsByPrice[i]);
+        }
+        for (int i = to; i < priceOrderSize; i++) {
+            filter.clear(ordinalsByPrice[i]);
+        }
+        return filter;
+    }
+    
+    private BitSet intersect(BitSet... filters) {
+        BitSet result = (BitSet) live.clone();
+        for (BitSet filter : filters) {
+            if (filter != live) {
+                result.and(filter);
+            }
+        }
+        return result;
+    }
+    
+    private int countIntersection(BitSet filter, BitSet ordinals, BitSet scratch) {
+        scratch.clear();
+        scratch.or(ordinals);
+        scratch.and(filter);
+        return scratch.cardinality();
+    }
+    
+    private List<ProductDto> page(BitSet matches, int offset, int size) {
+        List<ProductDto> result = new ArrayList<>(size);
+        int skip = offset;
+        for (int ordinal = matches.nextSetBit(0); ordinal >= 0 && result.size() < size; ordinal = matches.nextSetBit(ordinal + 1)) {
+            if (skip > 0) {
+                skip--;
+            } else {
+                result.add(products.get(ordinal));
+            }
+        }
+        return result;
+    }
+}
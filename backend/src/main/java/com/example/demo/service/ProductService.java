@@ -2,37 +2,110 @@ package com.example.demo.service;
 
 import com.example.demo.dto.ProductDto;
 import com.example.demo.entity.Product;
+import com.example.demo.event.ProductCatalogChangedEvent;
+import com.example.demo.jfr.ProductQueryEvent;
 import com.example.demo.repository.ProductRepository;
 import lombok.RequiredArgsConstructor;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.web.server.ResponseStatusException;
 
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Supplier;
 import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
 public class ProductService {
     
+    private static final Set<String> PRODUCT_FIELDS = Set.of(
+            "id", "name", "description", "price", "stockQuantity", "category", "createdAt", "updatedAt");
+    private static final int MAX_IDS = 200;
+    
     private final ProductRepository productRepository;
+    private final ApplicationEventPublisher eventPublisher;
     
     public List<ProductDto> getAllProducts() {
-        return productRepository.findAll().stream()
+        return recordQuery("findAll", null, () -> productRepository.findAll().stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     public ProductDto getProductById(Long id) {
-        Product product = productRepository.findById(id)
-                .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
-        return convertToDto(product);
+        return recordQuery("findById", id, () -> {
+            Product product = productRepository.findById(id)
+                    .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
+            return convertToDto(product);
+        });
+    }
+    
+    public ProductDto getProductByName(String name) {
+        return recordQuery("findByNaturalId", name, () -> {
+            Product product = productRepository.findByNaturalId(name)
+                    .orElseThrow(() -> new RuntimeException("Product not found with name: " + name));
+            return convertToDto(product);
+        });
+    }
+    
+    // One IN query for the whole list; products come back in the order of ids and unknown ids are skipped
+    public List<ProductDto> getProductsByIds(List<Long> ids) {
+        Set<Long> uniqueIds = checkIds(ids);
+        return recordQuery("findAllById", uniqueIds, () -> {
+            Map<Long, ProductDto> productsById = new LinkedHashMap<>();
+            for (Product product : productRepository.findAllById(uniqueIds)) {
+                productsById.put(product.getId(), convertToDto(product));
+            }
+            return inIdOrder(uniqueIds, productsById);
+        });
+    }
+    
+    // Sparse fieldset: only the requested columns are selected. The id is always included so callers
+    // can match rows; ids may be null to project the whole catalog
+    public List<Map<String, Object>> getProductFields(List<Long> ids, List<String> fields) {
+        Set<Long> uniqueIds = ids != null ? checkIds(ids) : null;
+        Set<String> selectedFields = new LinkedHashSet<>();
+        selectedFields.add("id");
+        for (String field : fields) {
+            if (!PRODUCT_FIELDS.contains(field)) {
+                throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Unknown product field: " + field);
+            }
+            selectedFields.add(field);
+        }
+        
+        return recordQuery("findFieldsByIds", selectedFields, () -> {
+            List<Map<String, Object>> rows = productRepository.findFieldsByIds(new ArrayList<>(selectedFields), uniqueIds);
+            if (uniqueIds == null) {
+                return rows;
+            }
+            Map<Long, Map<String, Object>> rowsById = new LinkedHashMap<>();
+            for (Map<String, Object> row : rows) {
+                rowsById.put((Long) row.get("id"), row);
+            }
+            return inIdOrder(uniqueIds, rowsById);
+        });
+    }
+    
+    public Optional<ProductDto> findProductById(Long id) {
+        return productRepository.findById(id).map(this::convertToDto);
     }
     
     public ProductDto createProduct(ProductDto productDto) {
         Product product = convertToEntity(productDto);
         Product savedProduct = productRepository.save(product);
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(savedProduct.getId()));
         return convertToDto(savedProduct);
     }
     
+    @Transactional
     public ProductDto updateProduct(Long id, ProductDto productDto) {
         Product existingProduct = productRepository.findById(id)
                 .orElseThrow(() -> new RuntimeException("Product not found with id: " + id));
@@ -44,26 +117,67 @@ public class ProductService {
         existingProduct.setCategory(productDto.getCategory());
         
         Product updatedProduct = productRepository.save(existingProduct);
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(id));
         return convertToDto(updatedProduct);
     }
     
+    @Transactional
     public void deleteProduct(Long id) {
         if (!productRepository.existsById(id)) {
             throw new RuntimeException("Product not found with id: " + id);
         }
         productRepository.deleteById(id);
+        eventPublisher.publishEvent(new ProductCatalogChangedEvent(id));
     }
     
     public List<ProductDto> getProductsByCategory(String category) {
-        return productRepository.findByCategory(category).stream()
+        return recordQuery("findByCategory", category, () -> productRepository.findByCategory(category).stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
     }
     
     public List<ProductDto> searchProductsByName(String name) {
-        return productRepository.findByNameContainingIgnoreCase(name).stream()
+        return recordQuery("findByNameContainingIgnoreCase", name, () -> productRepository.findByNameContainingIgnoreCase(name).stream()
                 .map(this::convertToDto)
-                .collect(Collectors.toList());
+                .collect(Collectors.toList()));
+    }
+    
+    private Set<Long> checkIds(List<Long> ids) {
+        Set<Long> uniqueIds = new LinkedHashSet<>(ids);
+        if (uniqueIds.size() > MAX_IDS) {
+            throw new ResponseStatusException(HttpStatus.BAD_REQUEST, "Too many product ids: " + uniqueIds.size() + " (max " + MAX_IDS + ")");
+        }
+        return uniqueIds;
+    }
+    
+    private <T> List<T> inIdOrder(Collection<Long> ids, Map<Long, T> byId) {
+        List<T> ordered = new ArrayList<>(byId.size());
+        for (Long id : ids) {
+            T value = byId.get(id);
+            if (value != null) {
+                ordered.add(value);
+            }
+        }
+        return ordered;
+    }
+    
+    // Wraps a catalog read in a JFR event; a read that throws is recorded with a result count of 0
+    private <T> T recordQuery(String queryName, Object parameter, Supplier<T> query) {
+        ProductQueryEvent event = new ProductQueryEvent();
+        event.begin();
+        try {
+            T result = query.get();
+            event.setResultCount(result instanceof List<?> list ? list.size() : 1);
+            return result;
+        } finally {
+            // The parameter can be a list of up to MAX_IDS ids, so it is only formatted for events that are kept
+            event.end();
+            if (event.shouldCommit()) {
+                event.setQueryName(queryName);
+                event.setParameter(parameter != null ? parameter.toString() : null);
+                event.commit();
+            }
+        }
     }
     
     private ProductDto convertToDto(Product product) {
@@ -0,0 +1,81 @@
+package com.example.demo.audit;
+
+import com.example.demo.dto.ReportJobDto;
+import org.junit.jupiter.api.Test;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.access.AccessDeniedException;
+import org.springframework.security.authentication.BadCredentialsException;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditInterceptorTest {
+    
+    private final RingBuffer<AuditRecord> buffer = new RingBuffer<>(16);
+    private final AuditInterceptor interceptor = new AuditInterceptor(buffer, Map.of(AuditedController.class, "report"), 10);
+    
+    @Test
+    void recordsTheStatusOfExceptionsThatEscapeTheHandler() throws Exception {
+        assertThat(statusAfter(null, 200)).isEqualTo(200);
+        assertThat(statusAfter(null, 404)).isEqualTo(404);
+        assertThat(statusAfter(new AccessDeniedException("denied"), 200)).isEqualTo(403);
+        assertThat(statusAfter(new BadCredentialsException("bad token"), 200)).isEqualTo(401);
+        assertThat(statusAfter(new IllegalStateException("boom"), 200)).isEqualTo(500);
+        // A status already set by an exception resolver wins
+        assertThat(statusAfter(new AccessDeniedException("denied"), 400)).isEqualTo(400);
+    }
+    
+    @Test
+    void recordsReportJobIdsFromThePathAndTheResponse() throws Exception {
+        String id = UUID.randomUUID().toString();
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/api/reports/" + id);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("id", id));
+        request.setAttribute(AuditInterceptor.RESPONSE_BODY_ATTRIBUTE, job(id));
+        AuditRecord record = audit(request, null, 200);
+        assertThat(record.entityType()).isEqualTo("report");
+        assertThat(record.entityIds()).containsExactly(id);
+        assertThat(record.resultCount()).isNull();
+        
+        request = new MockHttpServletRequest("GET", "/api/reports");
+        request.setAttribute(AuditInterceptor.RESPONSE_BODY_ATTRIBUTE, List.of(job("a"), job("b")));
+        record = audit(request, null, 200);
+        assertThat(record.entityIds()).containsExactly("a", "b");
+        assertThat(record.resultCount()).isEqualTo(2);
+    }
+    
+    private int statusAfter(Exception ex, int status) throws Exception {
+        return audit(new MockHttpServletRequest("GET", "/api/reports"), ex, status).status();
+    }
+    
+    private AuditRecord audit(MockHttpServletRequest request, Exception ex, int status) throws Exception {
+        HandlerMethod handler = new HandlerMethod(new AuditedController(), AuditedController.class.getMethod("get"));
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        response.setStatus(status);
+        
+        interceptor.preHandle(request, response, handler);
+        interceptor.afterCompletion(request, response, handler, ex);
+        
+        List<AuditRecord> records = new ArrayList<>();
+        assertThat(buffer.drainTo(records, 10)).isEqualTo(1);
+        return records.get(0);
+    }
+    
+    private static ReportJobDto job(String id) {
+        ReportJobDto job = new ReportJobDto();
+        job.setId(id);
+        return job;
+    }
+    
+    static class AuditedController {
+        public String get() {
+            return "ok";
+        }
+    }
+}
@@ -0,0 +1,140 @@
+package com.example.demo.audit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.BitSet;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RingBufferTest {
+    
+    @Test
+    void roundsCapacityUpToAPowerOfTwo() {
+        assertThat(new RingBuffer<>(3).capacity()).isEqualTo(4);
+        assertThat(new RingBuffer<>(5).capacity()).isEqualTo(8);
+        assertThat(new RingBuffer<>(8).capacity()).isEqualTo(8);
+        assertThat(new RingBuffer<>(1000).capacity()).isEqualTo(1024);
+    }
+    
+    @Test
+    void dropsAndCountsItemsOnceFull() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+        }
+        assertThat(buffer.offer(4)).isFalse();
+        assertThat(buffer.offer(5)).isFalse();
+        assertThat(buffer.getDropped()).isEqualTo(2);
+        
+        // Draining frees the slots again
+        List<Integer> batch = new ArrayList<>();
+        assertThat(buffer.drainTo(batch, 1)).isEqualTo(1);
+        assertThat(buffer.offer(6)).isTrue();
+        assertThat(buffer.offer(7)).isFalse();
+        assertThat(buffer.getDropped()).isEqualTo(3);
+        
+        buffer.drainTo(batch, 10);
+        assertThat(batch).containsExactly(0, 1, 2, 3, 6);
+    }
+    
+    @Test
+    void drainToTakesAtMostMaxItemsInOrder() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(16);
+        for (int i = 0; i < 10; i++) {
+            buffer.offer(i);
+        }
+        
+        List<Integer> batch = new ArrayList<>();
+        assertThat(buffer.drainTo(batch, 3)).isEqualTo(3);
+        assertThat(batch).containsExactly(0, 1, 2);
+        assertThat(buffer.drainTo(batch, 0)).isZero();
+        assertThat(buffer.drainTo(batch, 100)).isEqualTo(7);
+        assertThat(batch).containsExactly(0, 1, 2, 3, 4, 5, 6, 7, 8, 9);
+        assertThat(buffer.drainTo(batch, 100)).isZero();
+    }
+    
+    @Test
+    void wrapsAroundManyTimes() {
+        RingBuffer<Integer> buffer = new RingBuffer<>(4);
+        List<Integer> batch = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            assertThat(buffer.offer(i)).isTrue();
+            if (i % 3 == 2) {
+                buffer.drainTo(batch, 3);
+            }
+        }
+        buffer.drainTo(batch, 10);
+        assertThat(batch).hasSize(1000);
+        for (int i = 0; i < 1000; i++) {
+            assertThat(batch.get(i)).isEqualTo(i);
+        }
+        assertThat(buffer.getDropped()).isZero();
+    }
+    
+    @Test
+    void concurrentProducersLoseAndDuplicateNothing() throws Exception {
+        int producers = 8;
+        int perProducer = 50_000;
+        RingBuffer<Integer> buffer = new RingBuffer<>(256);
+        BitSet accepted = new BitSet();
+        BitSet received = new BitSet();
+        AtomicBoolean done = new AtomicBoolean();
+        CountDownLatch start = new CountDownLatch(1);
+        
+        ExecutorService executor = Executors.newFixedThreadPool(producers + 1);
+        try {
+            Future<Integer> consumer = executor.submit(() -> {
+                List<Integer> batch = new ArrayList<>();
+                int duplicates = 0;
+                while (true) {
+                    boolean finished = done.get();
+                    batch.clear();
+                    buffer.drainTo(batch, 64);
+                    for (int item : batch) {
+                        if (received.get(item)) {
+                            duplicates++;
+                        }
+                        received.set(item);
+                    }
+                    if (batch.isEmpty() && finished) {
+                        return duplicates;
+                    }
+                }
+            });
+            
+            List<Future<BitSet>> results = new ArrayList<>();
+            for (int p = 0; p < producers; p++) {
+                int first = p * perProducer;
+                results.add(executor.submit(() -> {
+                    BitSet offered = new BitSet();
+                    start.await();
+                    for (int item = first; item < first + perProducer; item++) {
+                        if (buffer.offer(item)) {
+                            offered.set(item);
+                        }
+                    }
+                    return offered;
+                }));
+            }
+            start.countDown();
+            for (Future<BitSet> result : results) {
+                accepted.or(result.get(30, TimeUnit.SECONDS));
+            }
+            done.set(true);
+            
+            assertThat(consumer.get(30, TimeUnit.SECONDS)).isZero();
+            assertThat(received).isEqualTo(accepted);
+            assertThat(accepted.cardinality() + buffer.getDropped()).isEqualTo((long) producers * perProducer);
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,45 @@
+package com.example.demo.config;
+
+import com.example.demo.audit.AuditLogWriter;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.boot.LazyInitializationBeanFactoryPostProcessor;
+import org.springframework.boot.test.context.runner.WebApplicationContextRunner;
+
+import java.nio.file.Path;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AuditConfigTest {
+    
+    @TempDir
+    Path directory;
+    
+    @Test
+    void startsTheWriterUnderLazyInitialization() {
+        new WebApplicationContextRunner()
+                .withInitializer(context -> context.addBeanFactoryPostProcessor(new LazyInitializationBeanFactoryPostProcessor()))
+                .withUserConfiguration(AuditConfig.class)
+                .withBean(ObjectMapper.class)
+                .withPropertyValues("app.audit.directory=" + directory)
+                .run(context -> {
+                    assertThat(context.getBeanFactory().containsSingleton("auditLogWriter")).isTrue();
+                    assertThat(writerThreadRunning()).isTrue();
+                });
+    }
+    
+    @Test
+    void createsNothingWhenDisabled() {
+        new WebApplicationContextRunner()
+                .withUserConfiguration(AuditConfig.class)
+                .withBean(ObjectMapper.class)
+                .withPropertyValues("app.audit.enabled=false", "app.audit.directory=" + directory)
+                .run(context -> assertThat(context).doesNotHaveBean(AuditLogWriter.class));
+    }
+    
+    private static boolean writerThreadRunning() {
+        return Thread.getAllStackTraces().keySet().stream()
+                .anyMatch(thread -> thread.getName().equals("audit-writer") && thread.isAlive());
+    }
+}
@@ -0,0 +1,27 @@
+package com.example.demo.controller;
+
+import com.example.demo.service.FlightRecorderService;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+
+class FlightRecorderControllerTest {
+    
+    private final FlightRecorderService service = mock(FlightRecorderService.class);
+    private final FlightRecorderController controller = new FlightRecorderController(service);
+    
+    @Test
+    void unparsableLimitsAreRejectedWith400() {
+        for (String[] limits : new String[][]{{"ten minutes", null}, {null, "lots"}, {"5x", "1GB"}}) {
+            assertThatThrownBy(() -> controller.startRecording(null, limits[0], limits[1]))
+                    .isInstanceOfSatisfying(ResponseStatusException.class,
+                            e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        }
+        verifyNoInteractions(service);
+    }
+}
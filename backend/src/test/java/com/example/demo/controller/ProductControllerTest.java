@@ -0,0 +1,62 @@
+package com.example.demo.controller;
+
+import com.example.demo.repository.ProductRepository;
+import com.example.demo.service.CatalogSnapshotService;
+import com.example.demo.service.ProductFacetIndex;
+import com.example.demo.service.ProductService;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.web.servlet.MockMvc;
+import org.springframework.test.web.servlet.setup.MockMvcBuilders;
+
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.stream.LongStream;
+
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyList;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.verifyNoInteractions;
+import static org.mockito.Mockito.when;
+import static org.springframework.test.web.servlet.request.MockMvcRequestBuilders.get;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.jsonPath;
+import static org.springframework.test.web.servlet.result.MockMvcResultMatchers.status;
+
+class ProductControllerTest {
+    
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final MockMvc mockMvc = MockMvcBuilders.standaloneSetup(new ProductController(
+            new ProductService(productRepository, mock(ApplicationEventPublisher.class)),
+            mock(CatalogSnapshotService.class), mock(ProductFacetIndex.class))).build();
+    
+    @Test
+    void unknownFieldsAreRejectedWith400() throws Exception {
+        mockMvc.perform(get("/api/products").param("fields", "name,password"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(productRepository);
+    }
+    
+    @Test
+    void tooManyIdsAreRejectedWith400() throws Exception {
+        String ids = LongStream.rangeClosed(1, 201).mapToObj(Long::toString).collect(Collectors.joining(","));
+        mockMvc.perform(get("/api/products").param("ids", ids))
+                .andExpect(status().isBadRequest());
+        mockMvc.perform(get("/api/products").param("ids", ids).param("fields", "name"))
+                .andExpect(status().isBadRequest());
+        verifyNoInteractions(productRepository);
+    }
+    
+    @Test
+    void fieldsSelectOnlyThoseKeysInRequestedOrder() throws Exception {
+        when(productRepository.findFieldsByIds(anyList(), any())).thenReturn(List.of(
+                Map.of("id", 1L, "name", "First"), Map.of("id", 2L, "name", "Second")));
+        
+        mockMvc.perform(get("/api/products").param("ids", "2,1,2").param("fields", "name"))
+                .andExpect(status().isOk())
+                .andExpect(jsonPath("$.length()").value(2))
+                .andExpect(jsonPath("$[0].name").value("Second"))
+                .andExpect(jsonPath("$[1].id").value(1))
+                .andExpect(jsonPath("$[0].price").doesNotExist());
+    }
+}
@@ -0,0 +1,75 @@
+package com.example.demo.datagen;
+
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.params.ParameterizedTest;
+import org.junit.jupiter.params.provider.ValueSource;
+
+import java.util.SplittableRandom;
+import java.util.stream.IntStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+class ZipfianSamplerTest {
+    
+    private static final int[] SEED_42_SEQUENCE = {4, 4102, 647, 265, 42444, 1, 1582, 3, 280, 13, 1955, 45};
+    
+    @Test
+    void sameSeedGivesTheSameSequence() {
+        ZipfianSampler sampler = new ZipfianSampler(100_000, 1.1);
+        int[] first = draw(sampler, new SplittableRandom(42), 10_000);
+        int[] second = draw(new ZipfianSampler(100_000, 1.1), new SplittableRandom(42), 10_000);
+        
+        assertThat(second).isEqualTo(first);
+        assertThat(draw(sampler, new SplittableRandom(43), 10_000)).isNotEqualTo(first);
+    }
+    
+    @Test
+    void sequenceForAFixedSeedDoesNotChange() {
+        // Synthetic data sets are reproducible only as long as this sequence is
+        assertThat(draw(new ZipfianSampler(100_000, 1.1), new SplittableRandom(42), 12))
+                .containsExactly(SEED_42_SEQUENCE);
+    }
+    
+    @ParameterizedTest
+    @ValueSource(doubles = {0.8, 1.0, 1.1, 1.5})
+    void headRanksFollowTheZipfFrequencies(double exponent) {
+        int n = 1_000;
+        int samples = 1_000_000;
+        int[] counts = new int[n + 1];
+        for (int rank : draw(new ZipfianSampler(n, exponent), new SplittableRandom(7), samples)) {
+            counts[rank]++;
+        }
+        
+        double normalization = IntStream.rangeClosed(1, n).mapToDouble(k -> Math.pow(k, -exponent)).sum();
+        for (int k = 1; k <= 10; k++) {
+            double expected = Math.pow(k, -exponent) / normalization;
+            double observed = (double) counts[k] / samples;
+            assertThat(observed).as("P(%d) for exponent %s", k, exponent).isCloseTo(expected, within(expected * 0.05));
+        }
+        assertThat(counts[0]).isZero();
+        assertThat(counts[n]).isPositive();
+    }
+    
+    @Test
+    void staysWithinOneToN() {
+        ZipfianSampler sampler = new ZipfianSampler(3, 0.5);
+        assertThat(draw(sampler, new SplittableRandom(1), 10_000)).containsOnly(1, 2, 3);
+        assertThat(draw(new ZipfianSampler(1, 1.2), new SplittableRandom(1), 100)).containsOnly(1);
+    }
+    
+    @Test
+    void rejectsInvalidParameters() {
+        assertThatThrownBy(() -> new ZipfianSampler(0, 1.0)).isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new ZipfianSampler(10, 0)).isInstanceOf(IllegalArgumentException.class);
+    }
+    
+    private static int[] draw(ZipfianSampler sampler, SplittableRandom random, int count) {
+        int[] ranks = new int[count];
+        for (int i = 0; i < count; i++) {
+            ranks[i] = sampler.sample(random);
+        }
+        return ranks;
+    }
+}
@@ -0,0 +1,168 @@
+package com.example.demo.limit;
+
+import com.example.demo.security.UserAuthenticationToken;
+import com.example.demo.security.UserContext;
+import com.example.demo.security.UserRole;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.core.context.SecurityContextHolder;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class AdaptiveConcurrencyLimitFilterTest {
+    
+    private final CountDownLatch release = new CountDownLatch(1);
+    private final List<Thread> blocked = new ArrayList<>();
+    private AdaptiveConcurrencyLimitFilter filter;
+    
+    @BeforeEach
+    void setUp() {
+        ConcurrencyLimitProperties properties = new ConcurrencyLimitProperties();
+        // Fixed limits: 10 globally, shared by every class, and 100 per class
+        properties.setInitialLimit(100);
+        properties.setMinLimit(10);
+        properties.setMaxLimit(100);
+        properties.setGlobalInitialLimit(10);
+        properties.setGlobalMaxLimit(10);
+        properties.setRetryAfter(Duration.ofSeconds(3));
+        properties.getRoutes().add(route("orders-write", "POST", "/api/orders/**", RequestPriority.CRITICAL));
+        properties.getRoutes().add(route("admin", "", "/api/admin/**", RequestPriority.HIGH));
+        properties.getRoutes().add(route("search", "GET", "/api/products/search", RequestPriority.LOW));
+        properties.getRoutes().add(route("catalog", "", "/api/products/**", RequestPriority.NORMAL));
+        properties.getRolePriorities().put(UserRole.ADMIN, RequestPriority.HIGH);
+        filter = new AdaptiveConcurrencyLimitFilter(properties);
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        release.countDown();
+        for (Thread thread : blocked) {
+            thread.join(TimeUnit.SECONDS.toMillis(5));
+        }
+        SecurityContextHolder.clearContext();
+    }
+    
+    @Test
+    void shedsLowPriorityRequestsFirstWithRetryAfter() throws Exception {
+        fill("GET", "/api/products/search", 5, null);
+        
+        MockHttpServletResponse shed = send("GET", "/api/products/search", null);
+        assertThat(shed.getStatus()).isEqualTo(503);
+        assertThat(shed.getHeader(HttpHeaders.RETRY_AFTER)).isEqualTo("3");
+        assertThat(shed.getContentAsString()).contains("\"status\":503");
+        
+        // Higher priorities still fit under their larger shares of the same limit: NORMAL 7, HIGH 9, CRITICAL 10
+        fill("GET", "/api/products/1", 2, null);
+        assertThat(send("GET", "/api/products/1", null).getStatus()).isEqualTo(503);
+        fill("GET", "/api/admin/cache", 2, null);
+        assertThat(send("GET", "/api/admin/cache", null).getStatus()).isEqualTo(503);
+        fill("POST", "/api/orders", 1, null);
+        assertThat(send("POST", "/api/orders", null).getStatus()).isEqualTo(503);
+    }
+    
+    @Test
+    void criticalRequestsUseTheWholeLimit() throws Exception {
+        fill("POST", "/api/orders", 10, null);
+        assertThat(send("POST", "/api/orders", null).getStatus()).isEqualTo(503);
+    }
+    
+    @Test
+    void rolePriorityFromTheJwtOverridesTheRouteDefault() throws Exception {
+        fill("GET", "/api/products/search", 5, null);
+        assertThat(send("GET", "/api/products/search", null).getStatus()).isEqualTo(503);
+        
+        // An admin's search runs at HIGH priority (9 of 10) instead of the route's LOW (5 of 10)
+        assertThat(send("GET", "/api/products/search", token("admin")).getStatus()).isEqualTo(200);
+        fill("GET", "/api/products/search", 4, token("admin"));
+        assertThat(send("GET", "/api/products/search", token("admin")).getStatus()).isEqualTo(503);
+        
+        // Roles without a configured priority keep the route default
+        assertThat(send("GET", "/api/products/search", token("customer")).getStatus()).isEqualTo(503);
+    }
+    
+    @Test
+    void releasesItsSlotsWhenRequestsFinish() throws Exception {
+        for (int i = 0; i < 50; i++) {
+            assertThat(send("GET", "/api/products/search", null).getStatus()).isEqualTo(200);
+        }
+        @SuppressWarnings("unchecked")
+        Map<String, Object> search = (Map<String, Object>) ((Map<String, Object>) filter.getStatus().get("classes")).get("search");
+        assertThat(search.get("inFlight")).isEqualTo(0);
+        assertThat(search.get("rejected")).isEqualTo(0L);
+    }
+    
+    // Starts requests that stay in flight until the test ends
+    private void fill(String method, String path, int count, UserAuthenticationToken authentication) throws InterruptedException {
+        CountDownLatch admitted = new CountDownLatch(count);
+        for (int i = 0; i < count; i++) {
+            blocked.add(Thread.ofPlatform().start(() -> {
+                SecurityContextHolder.getContext().setAuthentication(authentication);
+                try {
+                    filter.doFilter(request(method, path), new MockHttpServletResponse(), (request, response) -> {
+                        admitted.countDown();
+                        try {
+                            release.await();
+                        } catch (InterruptedException e) {
+                            Thread.currentThread().interrupt();
+                        }
+                    });
+                } catch (Exception e) {
+                    throw new IllegalStateException(e);
+                }
+            }));
+        }
+        assertThat(admitted.await(5, TimeUnit.SECONDS)).as("all %d requests admitted", count).isTrue();
+    }
+    
+    private MockHttpServletResponse send(String method, String path, UserAuthenticationToken authentication) throws Exception {
+        SecurityContextHolder.getContext().setAuthentication(authentication);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        filter.doFilter(request(method, path), response, (request, res) -> {
+        });
+        SecurityContextHolder.clearContext();
+        return response;
+    }
+    
+    private static MockHttpServletRequest request(String method, String path) {
+        MockHttpServletRequest request = new MockHttpServletRequest(method, path);
+        request.setRequestURI(path);
+        return request;
+    }
+    
+    private static UserAuthenticationToken token(String role) {
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("user-" + role)
+                .claim("preferred_username", role)
+                .claim("realm_access", Map.of("roles", List.of(role)))
+                .build();
+        Set<String> roleNames = Set.of(role.toUpperCase());
+        return new UserAuthenticationToken(jwt, List.of(new SimpleGrantedAuthority("ROLE_" + role.toUpperCase())),
+                UserContext.fromJwt(jwt, roleNames));
+    }
+    
+    private static ConcurrencyLimitProperties.Route route(String name, String method, String pattern, RequestPriority priority) {
+        ConcurrencyLimitProperties.Route route = new ConcurrencyLimitProperties.Route();
+        route.setName(name);
+        if (!method.isEmpty()) {
+            route.getMethods().add(method);
+        }
+        route.getPatterns().add(pattern);
+        route.setPriority(priority);
+        return route;
+    }
+}
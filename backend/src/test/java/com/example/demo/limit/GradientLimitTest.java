@@ -0,0 +1,94 @@
+package com.example.demo.limit;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class GradientLimitTest {
+    
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+    
+    private final GradientLimit limit = new GradientLimit(50, 4, 200, 1.5, 0.2, 600);
+    
+    @Test
+    void shrinksWhenLatencyRisesAndRecoversWhenItFalls() {
+        feed(FAST, 200);
+        int baseline = limit();
+        
+        feed(SLOW, 100);
+        int overloaded = limit();
+        assertThat(overloaded).isLessThan(baseline / 2);
+        
+        feed(FAST, 300);
+        assertThat(limit()).isGreaterThan(overloaded * 2);
+    }
+    
+    @Test
+    void staysWithinItsBounds() {
+        feed(FAST, 2000);
+        assertThat(limit()).isEqualTo(200);
+        
+        int lowest = Integer.MAX_VALUE;
+        for (int i = 0; i < 200; i++) {
+            feed(SLOW * 50, 1);
+            lowest = Math.min(lowest, limit());
+        }
+        assertThat(lowest).isEqualTo(4);
+    }
+    
+    @Test
+    void adoptsASustainedLatencyAsTheNewBaseline() {
+        feed(FAST, 200);
+        feed(SLOW, 3000);
+        assertThat(limit()).isEqualTo(200);
+    }
+    
+    @Test
+    void doesNotGrowWhileTheLimitIsUnused() {
+        for (int i = 0; i < 200; i++) {
+            assertThat(limit.tryAcquire(RequestPriority.CRITICAL)).isTrue();
+            limit.release(FAST, 1);
+        }
+        assertThat(limit()).isEqualTo(50);
+    }
+    
+    @Test
+    void shedsLowerPrioritiesAtTheirShareOfTheLimit() {
+        GradientLimit fixed = new GradientLimit(20, 20, 20, 1.5, 0.2, 600);
+        
+        assertThat(admitted(fixed, RequestPriority.LOW)).isEqualTo(10);
+        assertThat(admitted(fixed, RequestPriority.NORMAL)).isEqualTo(5);
+        assertThat(admitted(fixed, RequestPriority.HIGH)).isEqualTo(3);
+        assertThat(admitted(fixed, RequestPriority.CRITICAL)).isEqualTo(2);
+        assertThat(fixed.getInFlight()).isEqualTo(20);
+        assertThat(fixed.getStatus().get("rejected")).isEqualTo(4L);
+        
+        // Room freed by a release goes to whoever still fits under their ceiling
+        fixed.cancel();
+        assertThat(fixed.tryAcquire(RequestPriority.LOW)).isFalse();
+        assertThat(fixed.tryAcquire(RequestPriority.CRITICAL)).isTrue();
+    }
+    
+    private int admitted(GradientLimit target, RequestPriority priority) {
+        int admitted = 0;
+        while (target.tryAcquire(priority)) {
+            admitted++;
+        }
+        return admitted;
+    }
+    
+    private void feed(long rttNanos, int samples) {
+        for (int i = 0; i < samples; i++) {
+            limit.tryAcquire(RequestPriority.CRITICAL);
+            // Report the limit as fully used so it is allowed to grow
+            limit.release(rttNanos, limit() + 1);
+        }
+    }
+    
+    private int limit() {
+        return (int) limit.getStatus().get("limit");
+    }
+}
@@ -0,0 +1,270 @@
+package com.example.demo.report;
+
+import com.example.demo.dto.ReportRequestDto;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+import java.util.stream.LongStream;
+import java.util.zip.GZIPInputStream;
+import java.util.zip.GZIPOutputStream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyInt;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class ReportJobServiceTest {
+    
+    private static final long ORDERS = 7;
+    
+    @TempDir
+    Path directory;
+    
+    private final ObjectMapper objectMapper = new ObjectMapper().findAndRegisterModules();
+    private final OrderReportExporter exporter = mock(OrderReportExporter.class);
+    private final ReportProperties properties = new ReportProperties();
+    // Released by a test that wants to hold a job inside its first chunk
+    private volatile CountDownLatch chunkGate;
+    private final CountDownLatch inChunk = new CountDownLatch(1);
+    private ReportJobService service;
+    
+    @BeforeEach
+    void setUp() {
+        properties.setDirectory(directory);
+        properties.setChunkSize(3);
+        when(exporter.countOrders(any())).thenReturn(ORDERS);
+        when(exporter.nextChunk(any(), anyLong(), anyInt())).thenAnswer(invocation -> {
+            long after = invocation.getArgument(1);
+            int size = invocation.getArgument(2);
+            return LongStream.rangeClosed(after + 1, ORDERS).limit(size).boxed().toList();
+        });
+        when(exporter.writeChunk(any(), anyLong(), anyLong(), any())).thenAnswer(invocation -> {
+            inChunk.countDown();
+            if (chunkGate != null) {
+                chunkGate.await();
+            }
+            Writer writer = invocation.getArgument(3);
+            long first = invocation.getArgument(1);
+            long last = invocation.getArgument(2);
+            for (long id = first; id <= last; id++) {
+                writer.write(row(id));
+            }
+            return last - first + 1;
+        });
+    }
+    
+    @AfterEach
+    void tearDown() throws InterruptedException {
+        if (chunkGate != null) {
+            chunkGate.countDown();
+        }
+        if (service != null) {
+            service.stop();
+        }
+    }
+    
+    @Test
+    void writesEveryChunkAsItsOwnGzipMember() throws Exception {
+        service = start();
+        String id = service.submitReport(new ReportRequestDto(), "alice").getId();
+        awaitStatus(id, "COMPLETED");
+        
+        Path file = service.getReportFile(id);
+        assertThat(read(file)).isEqualTo(expectedCsv());
+        // Header plus three chunks of at most three orders
+        assertThat(countMembers(Files.readAllBytes(file))).isEqualTo(4);
+        assertThat(service.getReport(id).getOrdersWritten()).isEqualTo(ORDERS);
+        assertThat(service.getReport(id).getProgress()).isEqualTo(100.0);
+    }
+    
+    @Test
+    void resumesFromTheCheckpointAndDropsWhatFollowsIt() throws Exception {
+        // A job that checkpointed orders 1-3 and died halfway through writing the next chunk
+        ByteArrayOutputStream part = new ByteArrayOutputStream();
+        part.write(gzip(OrderReportExporter.HEADER));
+        part.write(gzip(row(1) + row(2) + row(3)));
+        long checkpoint = part.size();
+        byte[] cutShort = gzip(row(4) + row(5) + row(6));
+        part.write(cutShort, 0, cutShort.length / 2);
+        // More than the rest of the report takes, so only truncating gets rid of it
+        part.write(new byte[64 * 1024]);
+        
+        ReportJob job = new ReportJob();
+        job.setId("interrupted");
+        job.setStatus(ReportJob.Status.RUNNING);
+        job.setCreatedAt(LocalDateTime.now());
+        job.setStartedAt(LocalDateTime.now());
+        job.setStatuses(List.of());
+        job.setTotalOrders(ORDERS);
+        job.setOrdersWritten(3);
+        job.setRowsWritten(3);
+        job.setLastOrderId(3);
+        job.setFileSize(checkpoint);
+        objectMapper.writeValue(directory.resolve("interrupted.json").toFile(), job);
+        Files.write(directory.resolve("interrupted.csv.gz.part"), part.toByteArray());
+        
+        service = start();
+        assertThat(service.getReport("interrupted").getStatus()).isEqualTo("RUNNING");
+        service.resumeJobs();
+        awaitStatus("interrupted", "COMPLETED");
+        
+        Path file = service.getReportFile("interrupted");
+        assertThat(read(file)).isEqualTo(expectedCsv());
+        assertThat(Files.size(file)).isEqualTo(service.getReport("interrupted").getFileSize());
+        assertThat(countMembers(Files.readAllBytes(file))).isEqualTo(4);
+        assertThat(service.getReport("interrupted").getOrdersWritten()).isEqualTo(ORDERS);
+        assertThat(service.getReport("interrupted").getRowsWritten()).isEqualTo(ORDERS);
+        verify(exporter, never()).countOrders(any());
+        verify(exporter).nextChunk(any(), eq(3L), anyInt());
+        assertThat(directory.resolve("interrupted.csv.gz.part")).doesNotExist();
+        assertThat(objectMapper.readValue(directory.resolve("interrupted.json").toFile(), ReportJob.class).getStatus())
+                .isEqualTo(ReportJob.Status.COMPLETED);
+    }
+    
+    @Test
+    void cancelsARunningReport() throws Exception {
+        chunkGate = new CountDownLatch(1);
+        service = start();
+        String id = service.submitReport(new ReportRequestDto(), "alice").getId();
+        assertThat(inChunk.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(service.getReport(id).getStatus()).isEqualTo("RUNNING");
+        
+        // Downloading before it has finished is a conflict, not a server error
+        assertThatThrownBy(() -> service.getReportFile(id))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.CONFLICT));
+        
+        service.deleteReport(id);
+        assertThat(service.getReport(id).getStatus()).isEqualTo("RUNNING");
+        chunkGate.countDown();
+        awaitStatus(id, "CANCELLED");
+        
+        assertThat(directory.resolve(id + ".csv.gz.part")).doesNotExist();
+        assertThat(directory.resolve(id + ".csv.gz")).doesNotExist();
+        assertThat(objectMapper.readValue(directory.resolve(id + ".json").toFile(), ReportJob.class).getStatus())
+                .isEqualTo(ReportJob.Status.CANCELLED);
+        
+        // Deleting it again removes the job altogether
+        service.deleteReport(id);
+        assertThat(directory.resolve(id + ".json")).doesNotExist();
+        assertThatThrownBy(() -> service.getReport(id))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.NOT_FOUND));
+    }
+    
+    @Test
+    void rejectsAReversedDateRange() {
+        service = start();
+        ReportRequestDto request = new ReportRequestDto();
+        request.setFrom(LocalDate.of(2025, 3, 2));
+        request.setTo(LocalDate.of(2025, 3, 1));
+        
+        assertThatThrownBy(() -> service.submitReport(request, "alice"))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThat(service.getReports()).isEmpty();
+    }
+    
+    @Test
+    void refusesSubmissionsWithRetryAfterWhenTheQueueIsFull() throws Exception {
+        properties.setThreads(1);
+        properties.setQueueCapacity(1);
+        chunkGate = new CountDownLatch(1);
+        service = start();
+        service.submitReport(new ReportRequestDto(), "alice");
+        assertThat(inChunk.await(5, TimeUnit.SECONDS)).isTrue();
+        service.submitReport(new ReportRequestDto(), "alice");
+        
+        assertThatThrownBy(() -> service.submitReport(new ReportRequestDto(), "alice"))
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> {
+                    assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+                    assertThat(e.getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isNotBlank();
+                });
+        assertThat(service.getReports()).hasSize(2);
+        try (var files = Files.list(directory)) {
+            assertThat(files.filter(file -> file.toString().endsWith(".json"))).hasSize(2);
+        }
+    }
+    
+    private ReportJobService start() {
+        ReportJobService started = new ReportJobService(properties, exporter, objectMapper);
+        try {
+            started.start();
+        } catch (IOException e) {
+            throw new AssertionError(e);
+        }
+        return started;
+    }
+    
+    private void awaitStatus(String id, String status) throws InterruptedException {
+        Supplier<String> current = () -> service.getReport(id).getStatus();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (!current.get().equals(status) && System.nanoTime() < deadline) {
+            Thread.sleep(10);
+        }
+        assertThat(current.get()).isEqualTo(status);
+    }
+    
+    private static String row(long id) {
+        return id + ",row\n";
+    }
+    
+    private static String expectedCsv() {
+        StringBuilder csv = new StringBuilder(OrderReportExporter.HEADER);
+        for (long id = 1; id <= ORDERS; id++) {
+            csv.append(row(id));
+        }
+        return csv.toString();
+    }
+    
+    private static byte[] gzip(String text) throws IOException {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (GZIPOutputStream out = new GZIPOutputStream(bytes)) {
+            out.write(text.getBytes(StandardCharsets.UTF_8));
+        }
+        return bytes.toByteArray();
+    }
+    
+    // GZIPInputStream reads concatenated members as one stream
+    private static String read(Path file) throws IOException {
+        try (InputStream in = new GZIPInputStream(Files.newInputStream(file))) {
+            return new String(in.readAllBytes(), StandardCharsets.UTF_8);
+        }
+    }
+    
+    // Counts the gzip member headers (1f 8b 08 with no flags, as GZIPOutputStream writes them)
+    private static int countMembers(byte[] bytes) {
+        int members = 0;
+        for (int i = 0; i + 3 < bytes.length; i++) {
+            if ((bytes[i] & 0xff) == 0x1f && (bytes[i + 1] & 0xff) == 0x8b && bytes[i + 2] == 8 && bytes[i + 3] == 0) {
+                members++;
+            }
+        }
+        return members;
+    }
+}
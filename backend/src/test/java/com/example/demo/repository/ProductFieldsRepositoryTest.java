@@ -0,0 +1,60 @@
+package com.example.demo.repository;
+
+import com.example.demo.entity.Product;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+class ProductFieldsRepositoryTest {
+    
+    @Autowired
+    private ProductRepository productRepository;
+    
+    private List<Long> ids;
+    
+    @BeforeEach
+    void setUp() {
+        productRepository.deleteAll();
+        ids = productRepository.saveAll(List.of(
+                product("Lamp", "19.99", "Home"),
+                product("Kettle", "34.50", "Home"),
+                product("Novel", "9.00", "Books"))).stream().map(Product::getId).toList();
+    }
+    
+    @Test
+    void selectsOnlyTheRequestedColumns() {
+        List<Map<String, Object>> rows = productRepository.findFieldsByIds(List.of("id", "name", "price"), List.of(ids.get(2), ids.get(0)));
+        
+        assertThat(rows).hasSize(2);
+        assertThat(rows.get(0)).containsOnlyKeys("id", "name", "price")
+                .containsEntry("id", ids.get(0))
+                .containsEntry("name", "Lamp")
+                .containsEntry("price", new BigDecimal("19.99"));
+        assertThat(rows.get(1)).containsEntry("name", "Novel");
+    }
+    
+    @Test
+    void readsTheWholeCatalogWithoutIds() {
+        List<Map<String, Object>> rows = productRepository.findFieldsByIds(List.of("id", "category"), null);
+        
+        assertThat(rows).extracting(row -> row.get("id")).containsExactlyElementsOf(ids);
+        assertThat(rows).extracting(row -> row.get("category")).containsExactly("Home", "Home", "Books");
+    }
+    
+    private static Product product(String name, String price, String category) {
+        Product product = new Product();
+        product.setName(name);
+        product.setPrice(new BigDecimal(price));
+        product.setStockQuantity(5);
+        product.setCategory(category);
+        return product;
+    }
+}
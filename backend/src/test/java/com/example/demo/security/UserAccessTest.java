@@ -0,0 +1,52 @@
+package com.example.demo.security;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.GrantedAuthority;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserAccessTest {
+    
+    private final UserAccess userAccess = new UserAccess();
+    
+    // Authorities are upper-cased (ROLE_ADMIN) while @PreAuthorize rules name roles in lower case
+    @Test
+    void matchesRoleNamesInAnyCase() {
+        Authentication admin = UserRoleAuthorizationManagerTest.token("admin");
+        
+        assertThat(admin.getAuthorities()).extracting(GrantedAuthority::getAuthority).contains("ROLE_ADMIN");
+        assertThat(userAccess.hasRole(admin, "admin")).isTrue();
+        assertThat(userAccess.hasRole(admin, "ADMIN")).isTrue();
+        assertThat(userAccess.hasRole(admin, "Admin")).isTrue();
+        assertThat(userAccess.hasRole(admin, "manager")).isFalse();
+        assertThat(userAccess.hasAnyRole(admin, "manager", "admin")).isTrue();
+        assertThat(userAccess.hasAnyRole(admin, "manager", "employee")).isFalse();
+    }
+    
+    @Test
+    void matchesClientRolesByName() {
+        Authentication customer = UserRoleAuthorizationManagerTest.token("customer");
+        
+        assertThat(userAccess.hasRole(customer, "reports-viewer")).isTrue();
+        assertThat(userAccess.hasRole(customer, "REPORTS-VIEWER")).isTrue();
+        assertThat(userAccess.hasRole(customer, "reports-editor")).isFalse();
+        assertThat(userAccess.hasRole(customer, null)).isFalse();
+    }
+    
+    @Test
+    void deniesWithoutAuthentication() {
+        assertThat(userAccess.hasRole(null, "admin")).isFalse();
+        assertThat(userAccess.hasAnyRole(null, "admin", "manager")).isFalse();
+        assertThat(UserAccess.getUserContext(null)).isNull();
+    }
+    
+    @Test
+    void parsesRoleNamesInAnyCase() {
+        assertThat(UserRole.fromName("admin")).isEqualTo(UserRole.ADMIN);
+        assertThat(UserRole.fromName("ADMIN")).isEqualTo(UserRole.ADMIN);
+        assertThat(UserRole.fromName("Manager")).isEqualTo(UserRole.MANAGER);
+        assertThat(UserRole.fromName("offline_access")).isNull();
+        assertThat(UserRole.fromName(null)).isNull();
+    }
+}
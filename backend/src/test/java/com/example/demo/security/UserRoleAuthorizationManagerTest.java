@@ -0,0 +1,95 @@
+package com.example.demo.security;
+
+import com.example.demo.config.SecurityConfig;
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.AnonymousAuthenticationToken;
+import org.springframework.security.authentication.UsernamePasswordAuthenticationToken;
+import org.springframework.security.core.Authentication;
+import org.springframework.security.core.authority.AuthorityUtils;
+import org.springframework.security.oauth2.jwt.Jwt;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Map;
+
+import static com.example.demo.security.UserRole.ADMIN;
+import static com.example.demo.security.UserRole.CUSTOMER;
+import static com.example.demo.security.UserRole.EMPLOYEE;
+import static com.example.demo.security.UserRole.MANAGER;
+import static com.example.demo.security.UserRole.USER;
+import static org.assertj.core.api.Assertions.assertThat;
+
+class UserRoleAuthorizationManagerTest {
+    
+    @Test
+    void grantsWhenAnyRoleBitMatches() {
+        Authentication manager = token("manager");
+        
+        assertThat(granted(UserRoleAuthorizationManager.hasAnyRole(MANAGER), manager)).isTrue();
+        assertThat(granted(UserRoleAuthorizationManager.hasAnyRole(ADMIN, MANAGER, EMPLOYEE), manager)).isTrue();
+        assertThat(granted(UserRoleAuthorizationManager.hasAnyRole(ADMIN), manager)).isFalse();
+        assertThat(granted(UserRoleAuthorizationManager.hasAnyRole(EMPLOYEE, CUSTOMER), manager)).isFalse();
+        assertThat(granted(UserRoleAuthorizationManager.hasAnyRole(), manager)).isFalse();
+    }
+    
+    @Test
+    void checksEveryRoleOfTheCaller() {
+        Authentication employeeAndCustomer = token("employee", "customer", "offline_access");
+        
+        for (UserRole role : UserRole.values()) {
+            boolean expected = role == EMPLOYEE || role == CUSTOMER;
+            assertThat(granted(UserRoleAuthorizationManager.hasAnyRole(role), employeeAndCustomer)).as(role.name()).isEqualTo(expected);
+        }
+    }
+    
+    @Test
+    void deniesMissingAndAnonymousAuthentication() {
+        UserRoleAuthorizationManager anyRole = UserRoleAuthorizationManager.hasAnyRole(UserRole.values());
+        
+        assertThat(granted(anyRole, null)).isFalse();
+        assertThat(granted(anyRole, new AnonymousAuthenticationToken("key", "anonymous",
+                AuthorityUtils.createAuthorityList("ROLE_ANONYMOUS")))).isFalse();
+        assertThat(granted(anyRole, token())).isFalse();
+    }
+    
+    @Test
+    void readsRolesFromNonJwtAuthorities() {
+        Authentication admin = UsernamePasswordAuthenticationToken.authenticated("bob", null,
+                AuthorityUtils.createAuthorityList("ROLE_ADMIN", "SCOPE_profile"));
+        
+        assertThat(granted(UserRoleAuthorizationManager.hasAnyRole(ADMIN), admin)).isTrue();
+        assertThat(granted(UserRoleAuthorizationManager.hasAnyRole(USER), admin)).isFalse();
+    }
+    
+    @Test
+    void roleBitsAreDistinct() {
+        int all = 0;
+        for (UserRole role : UserRole.values()) {
+            assertThat(Integer.bitCount(role.bit())).isEqualTo(1);
+            assertThat(all & role.bit()).isZero();
+            all |= role.bit();
+        }
+        assertThat(UserRole.mask(UserRole.values())).isEqualTo(all);
+        assertThat(UserRole.mask()).isZero();
+    }
+    
+    private static boolean granted(UserRoleAuthorizationManager manager, Authentication authentication) {
+        return manager.authorize(() -> authentication, null).isGranted();
+    }
+    
+    // Converted the way the resource server converts Keycloak tokens, which carry lower-case realm roles
+    static Authentication token(String... realmRoles) {
+        Instant now = Instant.now();
+        Jwt jwt = Jwt.withTokenValue("token")
+                .header("alg", "RS256")
+                .subject("u1")
+                .issuer("http://localhost:8180/realms/ecommerce")
+                .issuedAt(now)
+                .expiresAt(now.plusSeconds(300))
+                .claim("preferred_username", "alice")
+                .claim("realm_access", Map.of("roles", List.of(realmRoles)))
+                .claim("resource_access", Map.of("ecommerce-backend", Map.of("roles", List.of("reports-viewer"))))
+                .build();
+        return new SecurityConfig().jwtAuthenticationConverter().convert(jwt);
+    }
+}
@@ -0,0 +1,68 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.CatalogSnapshot;
+import com.example.demo.dto.ProductDto;
+import com.example.demo.event.ProductCatalogChangedEvent;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class CatalogSnapshotServiceTest {
+    
+    private final ProductService productService = mock(ProductService.class);
+    private final List<CatalogSnapshotService> services = new ArrayList<>();
+    
+    @AfterEach
+    void tearDown() {
+        services.forEach(CatalogSnapshotService::shutdown);
+    }
+    
+    @Test
+    void etagDependsOnTheCatalogRatherThanTheProcess() throws InterruptedException {
+        when(productService.getAllProducts()).thenReturn(List.of(product(1, "Lamp"), product(2, "Desk")));
+        CatalogSnapshotService first = start();
+        // Another instance, or this one after a restart, that has already seen a write
+        CatalogSnapshotService second = start();
+        second.onCatalogChanged(new ProductCatalogChangedEvent(1L));
+        
+        CatalogSnapshot a = awaitSnapshot(first);
+        CatalogSnapshot b = awaitSnapshot(second);
+        assertThat(a.version()).isNotEqualTo(b.version());
+        assertThat(b.etag()).isEqualTo(a.etag()).matches("\"catalog-[0-9a-f]{32}\"");
+        
+        when(productService.getAllProducts()).thenReturn(List.of(product(1, "Lamp"), product(2, "Standing desk")));
+        first.onCatalogChanged(new ProductCatalogChangedEvent(2L));
+        assertThat(awaitSnapshot(first).etag()).isNotEqualTo(a.etag());
+    }
+    
+    private CatalogSnapshotService start() {
+        CatalogSnapshotService service = new CatalogSnapshotService(productService, new ObjectMapper().findAndRegisterModules());
+        services.add(service);
+        service.onApplicationReady();
+        return service;
+    }
+    
+    // Null until the rebuild for the latest write has finished
+    private static CatalogSnapshot awaitSnapshot(CatalogSnapshotService service) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        CatalogSnapshot snapshot;
+        while ((snapshot = service.getCurrentSnapshot()) == null && System.nanoTime() < deadline) {
+            Thread.sleep(5);
+        }
+        assertThat(snapshot).isNotNull();
+        return snapshot;
+    }
+    
+    private static ProductDto product(long id, String name) {
+        return new ProductDto(id, name, null, BigDecimal.TEN, 5, "Home", null, null);
+    }
+}
@@ -0,0 +1,64 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.util.unit.DataSize;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class FlightRecorderServiceTest {
+    
+    private final FlightRecorderService service = new FlightRecorderService();
+    
+    FlightRecorderServiceTest() {
+        ReflectionTestUtils.setField(service, "defaultSettings", "default");
+        ReflectionTestUtils.setField(service, "defaultMaxAge", Duration.ofMinutes(30));
+        ReflectionTestUtils.setField(service, "defaultMaxSize", DataSize.ofMegabytes(250));
+    }
+    
+    @AfterEach
+    void tearDown() {
+        ReflectionTestUtils.invokeMethod(service, "closeRecording");
+    }
+    
+    @Test
+    void stateConflictsAreRejectedWith409() throws Exception {
+        assertStatus(() -> service.stopRecording(), HttpStatus.CONFLICT);
+        assertStatus(() -> service.dumpRecording(), HttpStatus.CONFLICT);
+        
+        assertThat(service.startRecording(null, Duration.ofMinutes(1), DataSize.ofMegabytes(10))).containsEntry("state", "RUNNING");
+        assertStatus(() -> service.startRecording(null, null, null), HttpStatus.CONFLICT);
+        Path dump = service.dumpRecording();
+        try {
+            assertThat(Files.size(dump)).isPositive();
+        } finally {
+            Files.deleteIfExists(dump);
+        }
+        
+        assertThat(service.stopRecording()).containsEntry("state", "STOPPED");
+        assertStatus(() -> service.stopRecording(), HttpStatus.CONFLICT);
+        assertThat(service.getStatus()).containsEntry("state", "NONE");
+    }
+    
+    @Test
+    void badSettingsAndLimitsAreRejectedWith400() {
+        assertStatus(() -> service.startRecording("no-such-settings", null, null), HttpStatus.BAD_REQUEST);
+        assertStatus(() -> service.startRecording(null, Duration.ofSeconds(-1), null), HttpStatus.BAD_REQUEST);
+        assertStatus(() -> service.startRecording(null, Duration.ZERO, null), HttpStatus.BAD_REQUEST);
+        assertStatus(() -> service.startRecording(null, null, DataSize.ofBytes(-1)), HttpStatus.BAD_REQUEST);
+        assertThat(service.getStatus()).containsEntry("state", "NONE");
+    }
+    
+    private static void assertStatus(Runnable call, HttpStatus status) {
+        assertThatThrownBy(call::run)
+                .isInstanceOfSatisfying(ResponseStatusException.class, e -> assertThat(e.getStatusCode()).isEqualTo(status));
+    }
+}
@@ -0,0 +1,127 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class GroupCommitQueueTest {
+    
+    private final List<Integer> batchSizes = Collections.synchronizedList(new ArrayList<>());
+    
+    private GroupCommitQueue.BatchWriter<Integer, Integer> doubling() {
+        return batch -> {
+            batchSizes.add(batch.size());
+            batch.forEach(request -> request.result().complete(request.payload() * 2));
+        };
+    }
+    
+    @Test
+    void flushesAsSoonAsTheBatchIsFull() throws Exception {
+        try (GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test-full", 4, Duration.ofSeconds(30), 100, doubling())) {
+            List<CompletableFuture<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 4; i++) {
+                results.add(queue.submit(i));
+            }
+            
+            // Far sooner than the 30 second wait
+            for (int i = 0; i < 4; i++) {
+                assertThat(results.get(i).get(5, TimeUnit.SECONDS)).isEqualTo(i * 2);
+            }
+            assertThat(batchSizes).containsExactly(4);
+        }
+    }
+    
+    @Test
+    void flushesAPartialBatchWhenMaxWaitExpires() throws Exception {
+        try (GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test-wait", 100, Duration.ofMillis(50), 100, doubling())) {
+            long start = System.nanoTime();
+            List<CompletableFuture<Integer>> results = List.of(queue.submit(1), queue.submit(2), queue.submit(3));
+            
+            for (CompletableFuture<Integer> result : results) {
+                result.get(5, TimeUnit.SECONDS);
+            }
+            assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(40));
+            assertThat(batchSizes).containsExactly(3);
+            assertThat(results).extracting(CompletableFuture::join).containsExactly(2, 4, 6);
+        }
+    }
+    
+    @Test
+    void failsEveryRequestOfABatchWhoseWriterThrows() {
+        RuntimeException failure = new RuntimeException("write failed");
+        try (GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test-fail", 2, Duration.ofSeconds(5), 100, batch -> {
+            batch.getFirst().result().complete(0);
+            throw failure;
+        })) {
+            CompletableFuture<Integer> first = queue.submit(1);
+            CompletableFuture<Integer> second = queue.submit(2);
+            
+            assertThat(first.join()).isZero();
+            assertThatThrownBy(second::join).hasCause(failure);
+        }
+    }
+    
+    @Test
+    void failsRequestsTheWriterLeavesIncomplete() {
+        try (GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test-incomplete", 1, Duration.ofSeconds(5), 100, batch -> {
+        })) {
+            assertThatThrownBy(() -> queue.submit(1).join()).hasCauseInstanceOf(IllegalStateException.class);
+        }
+    }
+    
+    @Test
+    void closeWritesEverythingAlreadyQueued() throws Exception {
+        CountDownLatch writerBlocked = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test-close", 2, Duration.ofMillis(1), 100, batch -> {
+            writerBlocked.countDown();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            doubling().write(batch);
+        });
+        
+        List<CompletableFuture<Integer>> results = new ArrayList<>();
+        results.add(queue.submit(0));
+        assertThat(writerBlocked.await(5, TimeUnit.SECONDS)).isTrue();
+        // Queued behind the batch that is being written
+        for (int i = 1; i < 7; i++) {
+            results.add(queue.submit(i));
+        }
+        
+        Thread closer = Thread.ofPlatform().start(queue::close);
+        Thread.sleep(50);
+        release.countDown();
+        closer.join(TimeUnit.SECONDS.toMillis(5));
+        
+        for (int i = 0; i < results.size(); i++) {
+            assertThat(results.get(i).isDone()).isTrue();
+            assertThat(results.get(i).get()).isEqualTo(i * 2);
+        }
+        assertThat(batchSizes.stream().mapToInt(Integer::intValue).sum()).isEqualTo(7);
+        assertThat(batchSizes).allMatch(size -> size <= 2);
+        assertThatThrownBy(() -> queue.submit(8)).isInstanceOf(IllegalStateException.class);
+    }
+    
+    @Test
+    void closeReturnsPromptlyWhenIdle() throws ExecutionException, InterruptedException {
+        GroupCommitQueue<Integer, Integer> queue = new GroupCommitQueue<>("test-idle", 4, Duration.ofMillis(5), 100, doubling());
+        assertThat(queue.submit(1).get()).isEqualTo(2);
+        
+        long start = System.nanoTime();
+        queue.close();
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isLessThan(Duration.ofSeconds(1));
+    }
+}
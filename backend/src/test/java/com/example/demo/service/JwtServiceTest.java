@@ -0,0 +1,46 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.security.authentication.TestingAuthenticationToken;
+import org.springframework.security.core.Authentication;
+
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class JwtServiceTest {
+    
+    private final JwtService jwtService = new JwtService();
+    
+    @Test
+    void fallsBackWithoutAUserContext() {
+        Authentication unauthenticated = new TestingAuthenticationToken("bob", null, "ROLE_ADMIN");
+        unauthenticated.setAuthenticated(false);
+        
+        for (Authentication authentication : new Authentication[]{null, unauthenticated}) {
+            assertThat(jwtService.getUserContext(authentication)).isNull();
+            assertThat(jwtService.getCurrentUserEmail(authentication)).isNull();
+            assertThat(jwtService.getCurrentUserFirstName(authentication)).isNull();
+            assertThat(jwtService.getCurrentUserLastName(authentication)).isNull();
+            assertThat(jwtService.getCurrentUserRoles(authentication)).isEmpty();
+            assertThat(jwtService.getCurrentUserGroups(authentication)).isEmpty();
+            assertThat(jwtService.hasRole(authentication, "admin")).isFalse();
+            assertThat(jwtService.hasAnyRole(authentication, "admin", "manager")).isFalse();
+        }
+        assertThat(jwtService.getCurrentUsername(null)).isNull();
+        assertThat(jwtService.getCurrentUsername(unauthenticated)).isEqualTo("bob");
+        assertThat(jwtService.getUserInfo(null)).isEmpty();
+        assertThat(jwtService.getUserInfo(unauthenticated)).isEqualTo(Map.of("username", "bob"));
+    }
+    
+    @Test
+    void readsAuthenticatedNonJwtCallers() {
+        Authentication manager = new TestingAuthenticationToken("carol", null, "ROLE_MANAGER");
+        
+        assertThat(jwtService.getCurrentUsername(manager)).isEqualTo("carol");
+        assertThat(jwtService.getCurrentUserRoles(manager)).containsExactly("MANAGER");
+        assertThat(jwtService.hasRole(manager, "manager")).isTrue();
+        assertThat(jwtService.hasAnyRole(manager, "admin", "manager")).isTrue();
+        assertThat(jwtService.getUserInfo(manager)).isEqualTo(Map.of("username", "carol"));
+    }
+}
@@ -0,0 +1,296 @@
+package com.example.demo.service;
+
+import com.example.demo.event.OrderChangedEvent;
+import com.example.demo.repository.OrderRepository;
+import org.junit.jupiter.api.Test;
+import org.springframework.data.domain.Limit;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.TreeMap;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class OrderSearchIndexTest {
+    
+    private static final double MIN_SIMILARITY = 0.3;
+    
+    private final TreeMap<Long, OrderRepository.Contact> orders = new TreeMap<>();
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final OrderSearchIndex index = new OrderSearchIndex(orderRepository, MIN_SIMILARITY);
+    private final Map<Long, OrderRepository.Contact> deletedContacts = new HashMap<>();
+    
+    OrderSearchIndexTest() {
+        when(orderRepository.findByIdGreaterThanOrderByIdAsc(anyLong(), any(Limit.class))).thenAnswer(invocation -> {
+            long after = invocation.getArgument(0);
+            int max = invocation.<Limit>getArgument(1).max();
+            return orders.tailMap(after, false).values().stream().limit(max).toList();
+        });
+        when(orderRepository.findContactById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(orders.get(invocation.<Long>getArgument(0))));
+    }
+    
+    @Test
+    void tiesGoToTheNewestOrderAndLimitCutsOff() {
+        for (long id = 1; id <= 10; id++) {
+            order(id, "Maria Garcia", "maria.garcia@example.com", "+1-555-0100");
+        }
+        order(11, "Kenji Tanaka", "kenji@example.com", "+1-555-0199");
+        index.onApplicationReady();
+        
+        List<OrderSearchIndex.Hit> hits = index.search("maria garcia", 3);
+        assertThat(hits).extracting(OrderSearchIndex.Hit::orderId).containsExactly(10L, 9L, 8L);
+        assertThat(hits).extracting(OrderSearchIndex.Hit::score).containsOnly(1.0);
+        
+        assertThat(index.search("maria garcia", 50)).hasSize(10);
+    }
+    
+    @Test
+    void skipsDeletedOrdersAndIndexesNewOnes() {
+        order(1, "Liam Walker", "liam@example.com", null);
+        order(2, "Liam Walker", "liam.w@example.com", null);
+        index.onApplicationReady();
+        
+        orders.remove(2L);
+        index.onOrderChanged(new OrderChangedEvent(2L));
+        assertThat(ids(index.search("liam walker", 10))).containsExactly(1L);
+        
+        order(3, "Liam Walker", "lw@example.com", null);
+        index.onOrderChanged(new OrderChangedEvent(3L));
+        // A repeated event does not index the order twice
+        index.onOrderChanged(new OrderChangedEvent(3L));
+        assertThat(ids(index.search("liam walker", 10))).containsExactly(3L, 1L);
+    }
+    
+    @Test
+    void indexesOrdersCommittedOutOfIdOrder() {
+        order(1, "Noah Brown", null, null);
+        index.onApplicationReady();
+        order(5, "Noah Brown", null, null);
+        index.onOrderChanged(new OrderChangedEvent(5L));
+        order(4, "Noah Brown", null, null);
+        index.onOrderChanged(new OrderChangedEvent(4L));
+        
+        orders.remove(4L);
+        index.onOrderChanged(new OrderChangedEvent(4L));
+        assertThat(ids(index.search("noah brown", 10))).containsExactlyInAnyOrder(5L, 1L);
+    }
+    
+    @Test
+    void foldsAccentsInBothDirections() {
+        order(1, "José Müller", "jose.muller@example.com", null);
+        order(2, "Jose Mueller", null, null);
+        index.onApplicationReady();
+        
+        assertThat(ids(index.search("jose muller", 10))).first().isEqualTo(1L);
+        assertThat(ids(index.search("José Müller", 10))).first().isEqualTo(1L);
+        assertThat(ids(index.search("MÜLLER", 10))).contains(1L);
+    }
+    
+    @Test
+    void digitQueriesMatchAnywhereInsideAPhoneNumber() {
+        order(1, "Ava King", null, "+1 (555) 010-1234");
+        order(2, "Ben Lee", null, "+44 20 7946 0958");
+        index.onApplicationReady();
+        
+        assertThat(ids(index.search("0101234", 10))).containsExactly(1L);
+        assertThat(ids(index.search("555-0101", 10))).containsExactly(1L);
+        assertThat(ids(index.search("(555) 010 1234", 10))).containsExactly(1L);
+        assertThat(ids(index.search("7946", 10))).containsExactly(2L);
+    }
+    
+    @Test
+    void openLastWordMatchesAsAPrefix() {
+        order(1, "William Turner", null, null);
+        order(2, "Willow Tate", null, null);
+        index.onApplicationReady();
+        
+        assertThat(ids(index.search("willi", 10))).first().isEqualTo(1L);
+        assertThat(index.search("willi", 10).get(0).score()).isEqualTo(1.0);
+        assertThat(ids(index.search("turner willi", 10))).containsExactly(1L, 2L);
+    }
+    
+    @Test
+    void ignoresBlankAndPunctuationOnlyQueries() {
+        order(1, "Emma Stone", null, null);
+        index.onApplicationReady();
+        
+        assertThat(index.search("   ", 10)).isEmpty();
+        assertThat(index.search("@!?", 10)).isEmpty();
+        assertThat(index.search(null, 10)).isEmpty();
+    }
+    
+    @Test
+    void refusesSearchesUntilBuilt() {
+        order(1, "Emma Stone", null, null);
+        
+        assertThatThrownBy(() -> index.search("emma", 10))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE));
+        // Orders changed before the build are picked up by the build itself
+        index.onOrderChanged(new OrderChangedEvent(1L));
+        index.onApplicationReady();
+        assertThat(ids(index.search("emma", 10))).containsExactly(1L);
+    }
+    
+    @Test
+    void returnsTheSameTopHitsAsABruteForceScan() {
+        Random random = new Random(11);
+        randomOrders(4000, random);
+        index.onApplicationReady();
+        for (int i = 0; i < 400; i++) {
+            delete(1 + random.nextInt(4000));
+        }
+        
+        // Weights count every order ever indexed, deleted ones included, as the index's lists do
+        List<OrderRepository.Contact> weighted = new ArrayList<>(orders.values());
+        weighted.addAll(deletedContacts.values());
+        assertMatchesBruteForce(randomQueries(random), weighted);
+    }
+    
+    @Test
+    void compactsOnceEnoughOrdersAreDeleted() {
+        Random random = new Random(12);
+        randomOrders(4000, random);
+        index.onApplicationReady();
+        // The 1024th deletion is also a quarter of the index, which triggers the compaction
+        List<Long> ids = new ArrayList<>(orders.keySet());
+        Collections.shuffle(ids, random);
+        for (long id : ids.subList(0, 1024)) {
+            delete(id);
+        }
+        assertThat(ReflectionTestUtils.getField(index, "size")).isEqualTo(4000 - 1024);
+        
+        // Only the live orders are left to weigh, and deleted ids stay deleted
+        deletedContacts.clear();
+        delete(ids.get(0));
+        List<String> queries = randomQueries(random);
+        assertMatchesBruteForce(queries, orders.values());
+        
+        // Orders placed after the compaction are numbered after the renumbered ones
+        for (long id = 4001; id <= 4100; id++) {
+            order(id, "Maria Garcia", "maria" + id + "@example.com", "+1-555-0100");
+            index.onOrderChanged(new OrderChangedEvent(id));
+        }
+        assertThat(ids(index.search("maria garcia", 3))).containsExactly(4100L, 4099L, 4098L);
+        assertMatchesBruteForce(queries, orders.values());
+    }
+    
+    private void randomOrders(int count, Random random) {
+        String[] first = {"Maria", "Mario", "Marie", "John", "Jon", "Joan", "Anna", "Ana", "Hannah", "Liam", "Li", "Noah",
+                "Olivia", "Oliver", "Emma", "Emil", "Zoë", "Chloé", "Sofia", "Sophia"};
+        String[] last = {"Garcia", "Garza", "Smith", "Smyth", "Schmidt", "Nguyen", "Ng", "Müller", "Mueller", "Miller",
+                "Brown", "Braun", "Lee", "Li", "Kowalski", "Kovalsky"};
+        for (long id = 1; id <= count; id++) {
+            String name = first[random.nextInt(first.length)] + " " + last[random.nextInt(last.length)];
+            String email = name.toLowerCase().replace(' ', '.') + (random.nextInt(5) == 0 ? "" : random.nextInt(100)) + "@example.com";
+            String phone = "+1-555-" + String.format("%04d", random.nextInt(10_000));
+            order(id, name, email, phone);
+        }
+    }
+    
+    private List<String> randomQueries(Random random) {
+        List<OrderRepository.Contact> live = new ArrayList<>(orders.values());
+        List<String> queries = new ArrayList<>(List.of("maria garcia", "marie", "jon smith", "muller", "mueller anna",
+                "li", "ng", "braun", "sofia kowalsky", "chloe", "zoe lee", "555", "5550", "0042", "emma.smith",
+                "oliv", "hannah smyth 12", "xyz", "garcia@example"));
+        for (int i = 0; i < 60; i++) {
+            OrderRepository.Contact contact = live.get(random.nextInt(live.size()));
+            String name = contact.customerName();
+            int start = random.nextInt(name.length() / 2);
+            queries.add(name.substring(start, start + 3 + random.nextInt(name.length() - start - 2)));
+            queries.add(contact.customerPhone().substring(3 + random.nextInt(5)));
+        }
+        return queries;
+    }
+    
+    private void delete(long id) {
+        OrderRepository.Contact removed = orders.remove(id);
+        if (removed != null) {
+            deletedContacts.put(id, removed);
+        }
+        index.onOrderChanged(new OrderChangedEvent(id));
+    }
+    
+    // weighted: every order the index's lists still hold, which the IDF weights are computed over
+    private void assertMatchesBruteForce(List<String> queries, Collection<OrderRepository.Contact> weighted) {
+        Map<Integer, Integer> documentFrequency = new HashMap<>();
+        Map<Long, int[]> trigramsById = new HashMap<>();
+        for (OrderRepository.Contact contact : weighted) {
+            int[] trigrams = OrderSearchIndex.contactTrigrams(contact);
+            trigramsById.put(contact.id(), trigrams);
+            for (int trigram : trigrams) {
+                documentFrequency.merge(trigram, 1, Integer::sum);
+            }
+        }
+        
+        List<OrderRepository.Contact> live = new ArrayList<>(orders.values());
+        for (String query : queries) {
+            for (int limit : new int[]{1, 5, 20}) {
+                List<OrderSearchIndex.Hit> expected = bruteForce(query, limit, live, trigramsById, documentFrequency);
+                List<OrderSearchIndex.Hit> actual = index.search(query, limit);
+                assertThat(actual).as("'%s' limit %d", query, limit).isEqualTo(expected);
+            }
+        }
+    }
+    
+    private List<OrderSearchIndex.Hit> bruteForce(String query, int limit, List<OrderRepository.Contact> live,
+                                                  Map<Long, int[]> trigramsById, Map<Integer, Integer> documentFrequency) {
+        int[] keys = OrderSearchIndex.queryTrigrams(query);
+        if (keys.length == 0) {
+            return List.of();
+        }
+        int size = trigramsById.size();
+        double[] weights = new double[keys.length];
+        double total = 0;
+        for (int i = 0; i < keys.length; i++) {
+            weights[i] = Math.log(1.0 + (double) size / (documentFrequency.getOrDefault(keys[i], 0) + 1));
+            total += weights[i];
+        }
+        
+        record Scored(long id, double score) {
+        }
+        List<Scored> scored = new ArrayList<>();
+        for (OrderRepository.Contact contact : live) {
+            int[] trigrams = trigramsById.get(contact.id());
+            double score = 0;
+            for (int i = 0; i < keys.length; i++) {
+                if (Arrays.binarySearch(trigrams, keys[i]) >= 0) {
+                    score += weights[i];
+                }
+            }
+            if (score >= MIN_SIMILARITY * total - 1e-9) {
+                scored.add(new Scored(contact.id(), score));
+            }
+        }
+        // Scores within rounding of each other are ties, which go to the newest order
+        scored.sort((a, b) -> Math.abs(a.score() - b.score()) < 1e-9 ? Long.compare(b.id(), a.id()) : Double.compare(b.score(), a.score()));
+        double totalWeight = total;
+        return scored.stream()
+                .limit(limit)
+                .map(hit -> new OrderSearchIndex.Hit(hit.id(), Math.round(hit.score() / totalWeight * 1000) / 1000.0))
+                .toList();
+    }
+    
+    private void order(long id, String name, String email, String phone) {
+        orders.put(id, new OrderRepository.Contact(id, name, email, phone));
+    }
+    
+    private static List<Long> ids(List<OrderSearchIndex.Hit> hits) {
+        return hits.stream().map(OrderSearchIndex.Hit::orderId).toList();
+    }
+}
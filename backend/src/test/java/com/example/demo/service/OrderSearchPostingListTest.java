@@ -0,0 +1,104 @@
+package com.example.demo.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+import java.util.TreeSet;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderSearchPostingListTest {
+    
+    private static final int BLOCK = OrderSearchIndex.PostingList.SKIP_INTERVAL;
+    
+    @Test
+    void emptyListHasNoCurrentOrdinal() {
+        OrderSearchIndex.PostingList.Cursor cursor = new OrderSearchIndex.PostingList().cursor();
+        assertThat(cursor.current()).isEqualTo(-1);
+        assertThat(cursor.advance(100)).isEqualTo(-1);
+    }
+    
+    @Test
+    void nextWalksEveryOrdinalNewestFirstAcrossBlocks() {
+        // Three full blocks and a partial one, with gaps that need multi-byte varints
+        TreeSet<Integer> ordinals = randomOrdinals(3 * BLOCK + 17, new Random(1));
+        OrderSearchIndex.PostingList list = listOf(ordinals);
+        
+        OrderSearchIndex.PostingList.Cursor cursor = list.cursor();
+        for (int expected : ordinals.descendingSet()) {
+            assertThat(cursor.current()).isEqualTo(expected);
+            cursor.next();
+        }
+        assertThat(cursor.current()).isEqualTo(-1);
+        cursor.next();
+        assertThat(cursor.current()).isEqualTo(-1);
+    }
+    
+    @Test
+    void advanceFindsTheLargestOrdinalAtOrBelowTheTarget() {
+        TreeSet<Integer> ordinals = randomOrdinals(5 * BLOCK + 40, new Random(2));
+        OrderSearchIndex.PostingList list = listOf(ordinals);
+        int[] sorted = ordinals.stream().mapToInt(Integer::intValue).toArray();
+        
+        // Targets on and around every block boundary, from a fresh cursor each time
+        for (int block = 0; block * BLOCK < sorted.length; block++) {
+            int first = sorted[block * BLOCK];
+            int last = sorted[Math.min(sorted.length, (block + 1) * BLOCK) - 1];
+            for (int target : new int[]{first - 1, first, first + 1, last - 1, last, last + 1}) {
+                assertThat(list.cursor().advance(target)).as("advance(%d)", target).isEqualTo(floor(ordinals, target));
+            }
+        }
+        
+        // Below the first ordinal the list is exhausted
+        OrderSearchIndex.PostingList.Cursor cursor = list.cursor();
+        assertThat(cursor.advance(sorted[0] - 1)).isEqualTo(-1);
+        assertThat(cursor.current()).isEqualTo(-1);
+        assertThat(list.cursor().advance(Integer.MAX_VALUE)).isEqualTo(sorted[sorted.length - 1]);
+    }
+    
+    @Test
+    void interleavedNextAndAdvanceMatchAReferenceWalk() {
+        Random random = new Random(3);
+        for (int round = 0; round < 200; round++) {
+            TreeSet<Integer> ordinals = randomOrdinals(1 + random.nextInt(6 * BLOCK), random);
+            OrderSearchIndex.PostingList.Cursor cursor = listOf(ordinals).cursor();
+            Integer expected = ordinals.last();
+            
+            while (expected != null) {
+                assertThat(cursor.current()).isEqualTo(expected);
+                if (random.nextBoolean()) {
+                    cursor.next();
+                    expected = ordinals.lower(expected);
+                } else {
+                    // Targets at or below the current ordinal, sometimes far back, sometimes between postings
+                    int target = expected - random.nextInt(random.nextBoolean() ? 3 : 5_000);
+                    expected = ordinals.floor(target);
+                    assertThat(cursor.advance(target)).isEqualTo(expected != null ? expected : -1);
+                }
+            }
+            assertThat(cursor.current()).isEqualTo(-1);
+        }
+    }
+    
+    private static TreeSet<Integer> randomOrdinals(int count, Random random) {
+        TreeSet<Integer> ordinals = new TreeSet<>();
+        int ordinal = random.nextInt(3);
+        while (ordinals.size() < count) {
+            ordinals.add(ordinal);
+            ordinal += 1 + (random.nextInt(10) == 0 ? random.nextInt(50_000) : random.nextInt(40));
+        }
+        return ordinals;
+    }
+    
+    private static OrderSearchIndex.PostingList listOf(TreeSet<Integer> ordinals) {
+        OrderSearchIndex.PostingList list = new OrderSearchIndex.PostingList();
+        ordinals.forEach(list::add);
+        assertThat(list.count()).isEqualTo(ordinals.size());
+        return list;
+    }
+    
+    private static int floor(TreeSet<Integer> ordinals, int target) {
+        Integer floor = ordinals.floor(target);
+        return floor != null ? floor : -1;
+    }
+}
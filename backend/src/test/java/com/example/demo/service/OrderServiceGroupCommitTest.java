@@ -0,0 +1,122 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.OrderDto;
+import com.example.demo.dto.OrderItemDto;
+import com.example.demo.entity.Order;
+import com.example.demo.repository.OrderRepository;
+import com.example.demo.repository.ProductRepository;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.transaction.support.TransactionCallback;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.times;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OrderServiceGroupCommitTest {
+    
+    private final OrderRepository orderRepository = mock(OrderRepository.class);
+    private final ProductRepository productRepository = mock(ProductRepository.class);
+    private final TransactionTemplate transactionTemplate = mock(TransactionTemplate.class);
+    private final ExecutorService callers = Executors.newFixedThreadPool(3);
+    private OrderService orderService;
+    
+    @BeforeEach
+    void setUp() {
+        orderService = new OrderService(orderRepository, productRepository, transactionTemplate,
+                mock(OrderSearchIndex.class), mock(ApplicationEventPublisher.class));
+        ReflectionTestUtils.setField(orderService, "groupCommitEnabled", true);
+        ReflectionTestUtils.setField(orderService, "groupCommitMaxBatchSize", 3);
+        ReflectionTestUtils.setField(orderService, "groupCommitMaxWait", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(orderService, "groupCommitQueueCapacity", 10);
+        orderService.startGroupCommit();
+    }
+    
+    @AfterEach
+    void tearDown() {
+        orderService.stopGroupCommit();
+        callers.shutdownNow();
+    }
+    
+    @Test
+    void retriesEachOrderOnItsOwnWhenTheBatchTransactionFails() throws Exception {
+        // The shared transaction runs its work and then fails to commit
+        when(transactionTemplate.execute(any())).thenAnswer(invocation -> {
+            invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null);
+            throw new RuntimeException("batch commit failed");
+        });
+        AtomicLong ids = new AtomicLong();
+        when(orderRepository.save(any(Order.class))).thenAnswer(invocation -> {
+            Order order = invocation.getArgument(0);
+            if (order.getCustomerName().equals("Bob")) {
+                throw new RuntimeException("Duplicate order for Bob");
+            }
+            order.setId(ids.incrementAndGet());
+            return order;
+        });
+        
+        CompletableFuture<OrderDto> alice = submit(order("Alice", List.of()));
+        CompletableFuture<OrderDto> bob = submit(order("Bob", List.of()));
+        CompletableFuture<OrderDto> carol = submit(order("Carol", List.of(new OrderItemDto(null, 99L, null, 1, null, null))));
+        
+        OrderDto saved = alice.get(5, TimeUnit.SECONDS);
+        assertThat(saved.getId()).isEqualTo(1L);
+        assertThat(saved.getCustomerName()).isEqualTo("Alice");
+        assertThatThrownBy(() -> bob.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("Duplicate order for Bob");
+        // Rejected before the transaction, so never retried
+        assertThatThrownBy(() -> carol.get(5, TimeUnit.SECONDS)).hasRootCauseMessage("Product not found with id: 99");
+        verify(transactionTemplate, times(1)).execute(any());
+        verify(orderRepository, times(2)).save(any(Order.class));
+    }
+    
+    @Test
+    void completesEveryOrderOfASuccessfulBatch() throws Exception {
+        AtomicLong ids = new AtomicLong();
+        when(transactionTemplate.execute(any())).thenAnswer(invocation ->
+                invocation.<TransactionCallback<?>>getArgument(0).doInTransaction(null));
+        when(orderRepository.saveAll(any())).thenAnswer(invocation -> {
+            List<Order> orders = invocation.getArgument(0);
+            orders.forEach(order -> order.setId(ids.incrementAndGet()));
+            return orders;
+        });
+        
+        List<CompletableFuture<OrderDto>> results = List.of(
+                submit(order("Alice", List.of())), submit(order("Bob", List.of())), submit(order("Carol", List.of())));
+        
+        for (CompletableFuture<OrderDto> result : results) {
+            OrderDto saved = result.get(5, TimeUnit.SECONDS);
+            assertThat(saved.getId()).isNotNull();
+        }
+        assertThat(results).extracting(result -> result.join().getCustomerName())
+                .containsExactlyInAnyOrder("Alice", "Bob", "Carol");
+        verify(transactionTemplate, times(1)).execute(any());
+    }
+    
+    private CompletableFuture<OrderDto> submit(OrderDto order) {
+        return CompletableFuture.supplyAsync(() -> orderService.createOrder(order), callers);
+    }
+    
+    private static OrderDto order(String customerName, List<OrderItemDto> items) {
+        OrderDto order = new OrderDto();
+        order.setCustomerName(customerName);
+        order.setCustomerEmail(customerName.toLowerCase() + "@example.com");
+        order.setOrderItems(items);
+        return order;
+    }
+}
@@ -0,0 +1,173 @@
+package com.example.demo.service;
+
+import com.example.demo.dto.PriceBucketDto;
+import com.example.demo.dto.ProductBrowseDto;
+import com.example.demo.dto.ProductDto;
+import com.example.demo.event.ProductCatalogChangedEvent;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.server.ResponseStatusException;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.Random;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Predicate;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.ArgumentMatchers.anyLong;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+class ProductFacetIndexTest {
+    
+    private static final List<String> CATEGORIES = List.of("Books", "Electronics", "Garden", "Toys");
+    private static final List<BigDecimal> BOUNDS = List.of(new BigDecimal("50"), new BigDecimal("100"), new BigDecimal("250"));
+    
+    private final Random random = new Random(7);
+    private final Map<Long, ProductDto> catalog = new ConcurrentHashMap<>();
+    private final ProductService productService = mock(ProductService.class);
+    private ProductFacetIndex index;
+    private long nextId = 1;
+    
+    @BeforeEach
+    void setUp() {
+        for (int i = 0; i < 3000; i++) {
+            create();
+        }
+        when(productService.getAllProducts()).thenAnswer(invocation -> new ArrayList<>(catalog.values()));
+        when(productService.findProductById(anyLong())).thenAnswer(invocation -> Optional.ofNullable(catalog.get(invocation.<Long>getArgument(0))));
+        index = new ProductFacetIndex(productService, BOUNDS);
+        index.onApplicationReady();
+    }
+    
+    @Test
+    void matchesABruteForceScan() {
+        assertMatchesBruteForce();
+    }
+    
+    @Test
+    void matchesABruteForceScanAfterUpdatesDeletesAndInserts() {
+        List<Long> ids = new ArrayList<>(catalog.keySet());
+        for (int i = 0; i < 2500; i++) {
+            Long id = ids.get(random.nextInt(ids.size()));
+            switch (random.nextInt(3)) {
+                case 0 -> catalog.remove(id);
+                case 1 -> {
+                    if (catalog.containsKey(id)) {
+                        catalog.put(id, product(id));
+                    }
+                }
+                default -> id = create();
+            }
+            index.onCatalogChanged(new ProductCatalogChangedEvent(id));
+        }
+        assertMatchesBruteForce();
+    }
+    
+    @Test
+    void reclaimsSlotsOfDeletedProducts() {
+        List<Long> ids = new ArrayList<>(catalog.keySet());
+        ids.sort(Comparator.naturalOrder());
+        for (Long id : ids.subList(0, 2000)) {
+            catalog.remove(id);
+            index.onCatalogChanged(new ProductCatalogChangedEvent(id));
+        }
+        
+        List<?> slots = (List<?>) ReflectionTestUtils.getField(index, "products");
+        assertThat(slots).hasSizeLessThan(2000);
+        ProductBrowseDto all = index.browse(null, null, null, false, 0, 5);
+        assertThat(all.getTotalCount()).isEqualTo(1000);
+        // Still in id order after renumbering
+        assertThat(all.getProducts()).extracting(ProductDto::getId).isSorted().first().isEqualTo(ids.get(2000));
+    }
+    
+    @Test
+    void keepsIdOrderWhenCreatesCommitOutOfOrder() {
+        long first = create();
+        long second = create();
+        index.onCatalogChanged(new ProductCatalogChangedEvent(second));
+        index.onCatalogChanged(new ProductCatalogChangedEvent(first));
+        
+        ProductBrowseDto last = index.browse(null, null, null, false, 0, catalog.size());
+        assertThat(last.getProducts()).extracting(ProductDto::getId).isSorted().endsWith(first, second);
+        assertMatchesBruteForce();
+    }
+    
+    @Test
+    void rejectsPagesPastTheIntRange() {
+        assertThatThrownBy(() -> index.browse(null, null, null, false, Integer.MAX_VALUE / 10, 100))
+                .isInstanceOfSatisfying(ResponseStatusException.class,
+                        e -> assertThat(e.getStatusCode()).isEqualTo(HttpStatus.BAD_REQUEST));
+        assertThat(index.browse(null, null, null, false, Integer.MAX_VALUE / 100, 100).getProducts()).isEmpty();
+    }
+    
+    private void assertMatchesBruteForce() {
+        BigDecimal[] prices = {null, new BigDecimal("0.01"), new BigDecimal("49.99"), new BigDecimal("50"), new BigDecimal("120.50"), new BigDecimal("400")};
+        List<Set<String>> categoryFilters = List.of(Set.of(), Set.of("Books"), Set.of("Electronics", "Toys"), Set.of("Missing"));
+        for (Set<String> categories : categoryFilters) {
+            for (BigDecimal min : prices) {
+                for (BigDecimal max : prices) {
+                    for (boolean inStockOnly : new boolean[]{false, true}) {
+                        assertBrowse(categories, min, max, inStockOnly);
+                    }
+                }
+            }
+        }
+    }
+    
+    private void assertBrowse(Set<String> categories, BigDecimal min, BigDecimal max, boolean inStockOnly) {
+        ProductBrowseDto result = index.browse(categories, min, max, inStockOnly, 1, 20);
+        
+        Predicate<ProductDto> byCategory = product -> categories.isEmpty() || categories.contains(product.getCategory());
+        Predicate<ProductDto> byPrice = product -> (min == null || product.getPrice().compareTo(min) >= 0)
+                && (max == null || product.getPrice().compareTo(max) <= 0);
+        Predicate<ProductDto> byStock = product -> !inStockOnly || product.getStockQuantity() > 0;
+        List<ProductDto> expected = sorted(byCategory.and(byPrice).and(byStock));
+        
+        String filter = categories + " " + min + ".." + max + " inStock=" + inStockOnly;
+        assertThat(result.getTotalCount()).as(filter).isEqualTo(expected.size());
+        assertThat(result.getProducts()).as(filter).isEqualTo(expected.stream().skip(20).limit(20).toList());
+        
+        Map<String, Integer> categoryCounts = new TreeMap<>();
+        sorted(byPrice.and(byStock)).forEach(product -> categoryCounts.merge(product.getCategory(), 1, Integer::sum));
+        assertThat(result.getCategoryCounts()).as(filter).isEqualTo(categoryCounts);
+        
+        List<ProductDto> withoutPrice = sorted(byCategory.and(byStock));
+        for (PriceBucketDto bucket : result.getPriceBuckets()) {
+            long count = withoutPrice.stream()
+                    .filter(product -> product.getPrice().compareTo(bucket.getMinPrice()) >= 0)
+                    .filter(product -> bucket.getMaxPrice() == null || product.getPrice().compareTo(bucket.getMaxPrice()) < 0)
+                    .count();
+            assertThat(bucket.getCount()).as(filter + " bucket " + bucket.getMinPrice()).isEqualTo((int) count);
+        }
+        assertThat(result.getInStockCount()).as(filter)
+                .isEqualTo(sorted(byCategory.and(byPrice).and(product -> product.getStockQuantity() > 0)).size());
+    }
+    
+    private List<ProductDto> sorted(Predicate<ProductDto> filter) {
+        return catalog.values().stream().filter(filter).sorted(Comparator.comparing(ProductDto::getId)).toList();
+    }
+    
+    private long create() {
+        long id = nextId++;
+        catalog.put(id, product(id));
+        return id;
+    }
+    
+    // Prices repeat often, so ties in the price order are exercised too
+    private ProductDto product(long id) {
+        BigDecimal price = BigDecimal.valueOf(random.nextInt(600) * 100L + (random.nextBoolean() ? 0 : 99), 2);
+        return new ProductDto(id, "Product " + id, null, price, random.nextInt(4) == 0 ? 0 : random.nextInt(50),
+                CATEGORIES.get(random.nextInt(CATEGORIES.size())), null, null);
+    }
+}
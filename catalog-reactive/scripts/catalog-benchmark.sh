@@ -0,0 +1,33 @@
+#!/usr/bin/env bash
+# Drives the servlet backend and the reactive catalog service with the same read-only catalog
+# traffic (load-test --scenario catalog) and prints both reports.
+#
+# Usage: scripts/catalog-benchmark.sh [concurrency] [duration-seconds]
+#
+# Both services must already be running against the same products table, e.g.
+#   backend:           ./mvnw spring-boot:run -Dspring-boot.run.profiles=shared-db \
+#                        -Dspring-boot.run.arguments=--app.concurrency-limit.enabled=false
+#   catalog-reactive:  mvn spring-boot:run
+# The backend's concurrency limiter is switched off because it answers 503 under this load and
+# the reactive service has no equivalent. Check the non-2xx column before comparing latencies.
+# Keycloak must not be running: the load test serves its own stub JWKS on port 8180.
+set -euo pipefail
+
+CONCURRENCY="${1:-200}"
+DURATION="${2:-60}"
+SERVLET_URL="${SERVLET_URL:-http://localhost:8080}"
+REACTIVE_URL="${REACTIVE_URL:-http://localhost:8081}"
+ROOT_DIR="$(cd "$(dirname "$0")/../.." && pwd)"
+OUT_DIR="${OUT_DIR:-$ROOT_DIR/catalog-reactive/target/benchmark}"
+
+mkdir -p "$OUT_DIR"
+cd "$ROOT_DIR/load-test"
+
+for target in servlet reactive; do
+    if [[ "$target" == servlet ]]; then url="$SERVLET_URL"; else url="$REACTIVE_URL"; fi
+    echo "== $target ($url)"
+    mvn -q exec:java -Dexec.args="--base-url $url --scenario catalog --concurrency $CONCURRENCY \
+--warmup 15 --duration $DURATION --mix customer=70,employee=20,manager=10 --out $OUT_DIR/$target.json"
+done
+
+echo "Results written to $OUT_DIR"
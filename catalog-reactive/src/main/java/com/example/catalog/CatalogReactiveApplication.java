@@ -0,0 +1,13 @@
+package com.example.catalog;
+
+import org.springframework.boot.SpringApplication;
+import org.springframework.boot.autoconfigure.SpringBootApplication;
+
+@SpringBootApplication
+public class CatalogReactiveApplication {
+
+	public static void main(String[] args) {
+		SpringApplication.run(CatalogReactiveApplication.class, args);
+	}
+
+}
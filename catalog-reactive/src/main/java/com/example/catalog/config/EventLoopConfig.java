@@ -0,0 +1,18 @@
+package com.example.catalog.config;
+
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.web.embedded.netty.NettyServerCustomizer;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.netty.resources.LoopResources;
+
+@Configuration
+public class EventLoopConfig {
+
+    // Pins the HTTP server to a fixed number of event-loop threads so footprint comparisons are explicit
+    @Bean
+    public NettyServerCustomizer eventLoopCustomizer(@Value("${app.event-loop.threads}") int threads) {
+        LoopResources loops = LoopResources.create("catalog-http", threads, true);
+        return httpServer -> httpServer.runOn(loops);
+    }
+}
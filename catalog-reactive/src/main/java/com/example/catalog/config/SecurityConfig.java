@@ -0,0 +1,112 @@
+package com.example.catalog.config;
+
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.convert.converter.Converter;
+import org.springframework.http.HttpMethod;
+import org.springframework.security.authentication.AbstractAuthenticationToken;
+import org.springframework.security.config.annotation.web.reactive.EnableWebFluxSecurity;
+import org.springframework.security.config.web.server.ServerHttpSecurity;
+import org.springframework.security.core.GrantedAuthority;
+import org.springframework.security.core.authority.SimpleGrantedAuthority;
+import org.springframework.security.oauth2.jwt.Jwt;
+import org.springframework.security.oauth2.server.resource.authentication.JwtAuthenticationToken;
+import org.springframework.security.oauth2.server.resource.authentication.JwtGrantedAuthoritiesConverter;
+import org.springframework.security.oauth2.server.resource.authentication.ReactiveJwtAuthenticationConverterAdapter;
+import org.springframework.security.web.server.SecurityWebFilterChain;
+import org.springframework.security.web.server.context.NoOpServerSecurityContextRepository;
+import org.springframework.web.cors.CorsConfiguration;
+import org.springframework.web.cors.reactive.CorsConfigurationSource;
+import org.springframework.web.cors.reactive.UrlBasedCorsConfigurationSource;
+import reactor.core.publisher.Mono;
+
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+// Mirrors the product rules of the backend's SecurityConfig; this service only serves catalog reads
+@Configuration
+@EnableWebFluxSecurity
+public class SecurityConfig {
+
+    private final JwtGrantedAuthoritiesConverter defaultAuthoritiesConverter = new JwtGrantedAuthoritiesConverter();
+
+    @Bean
+    public SecurityWebFilterChain filterChain(ServerHttpSecurity http) {
+        http
+            .cors(cors -> cors.configurationSource(corsConfigurationSource()))
+            .csrf(csrf -> csrf.disable())
+            .securityContextRepository(NoOpServerSecurityContextRepository.getInstance())
+            .authorizeExchange(auth -> auth
+                // Public endpoints
+                .pathMatchers(HttpMethod.GET, "/actuator/health/**").permitAll()
+                
+                // API endpoints with role-based access
+                .pathMatchers(HttpMethod.GET, "/api/products/**").hasAnyRole("ADMIN", "MANAGER", "EMPLOYEE", "CUSTOMER")
+                
+                // All other requests need authentication
+                .anyExchange().authenticated()
+            )
+            .oauth2ResourceServer(oauth2 -> oauth2
+                .jwt(jwt -> jwt
+                    .jwtAuthenticationConverter(jwtAuthenticationConverter())
+                )
+            );
+
+        return http.build();
+    }
+
+    @Bean
+    public Converter<Jwt, Mono<AbstractAuthenticationToken>> jwtAuthenticationConverter() {
+        return new ReactiveJwtAuthenticationConverterAdapter(jwt -> new JwtAuthenticationToken(jwt, extractAuthorities(jwt)));
+    }
+
+    private Collection<GrantedAuthority> extractAuthorities(Jwt jwt) {
+        Set<GrantedAuthority> authorities = new LinkedHashSet<>();
+        for (String roleName : extractRoleNames(jwt)) {
+            authorities.add(new SimpleGrantedAuthority("ROLE_" + roleName));
+        }
+        
+        // Extract default roles
+        authorities.addAll(defaultAuthoritiesConverter.convert(jwt));
+        return authorities;
+    }
+
+    private Set<String> extractRoleNames(Jwt jwt) {
+        Set<String> roleNames = new LinkedHashSet<>();
+        
+        // Extract roles from realm_access
+        addRoleNames(jwt.getClaimAsMap("realm_access"), roleNames);
+        
+        // Extract roles from resource_access
+        Map<String, Object> resourceAccess = jwt.getClaimAsMap("resource_access");
+        if (resourceAccess != null && resourceAccess.get("ecommerce-backend") instanceof Map<?, ?> clientAccess) {
+            addRoleNames(clientAccess, roleNames);
+        }
+        return roleNames;
+    }
+
+    private void addRoleNames(Map<?, ?> access, Set<String> roleNames) {
+        if (access != null && access.get("roles") instanceof Collection<?> roles) {
+            for (Object role : roles) {
+                roleNames.add(role.toString().toUpperCase());
+            }
+        }
+    }
+
+    @Bean
+    public CorsConfigurationSource corsConfigurationSource() {
+        CorsConfiguration configuration = new CorsConfiguration();
+        configuration.setAllowedOriginPatterns(List.of("http://localhost:4200", "http://127.0.0.1:4200"));
+        configuration.setAllowedMethods(List.of("GET", "OPTIONS"));
+        configuration.setAllowedHeaders(List.of("*"));
+        configuration.setAllowCredentials(true);
+        configuration.setExposedHeaders(List.of("Authorization", "Cache-Control", "Content-Type"));
+        
+        UrlBasedCorsConfigurationSource source = new UrlBasedCorsConfigurationSource();
+        source.registerCorsConfiguration("/**", configuration);
+        return source;
+    }
+}
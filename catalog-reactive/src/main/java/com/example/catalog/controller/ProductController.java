@@ -0,0 +1,43 @@
+package com.example.catalog.controller;
+
+import com.example.catalog.dto.ProductDto;
+import com.example.catalog.service.ProductService;
+import lombok.RequiredArgsConstructor;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@RestController
+@RequestMapping("/api/products")
+@RequiredArgsConstructor
+@CrossOrigin(origins = "http://localhost:4200")
+public class ProductController {
+    
+    private final ProductService productService;
+    
+    @GetMapping
+    public Flux<ProductDto> getAllProducts() {
+        return productService.getAllProducts();
+    }
+    
+    @GetMapping("/{id}")
+    public Mono<ResponseEntity<ProductDto>> getProductById(@PathVariable Long id) {
+        return productService.getProductById(id).map(ResponseEntity::ok);
+    }
+    
+    @GetMapping("/name/{name}")
+    public Mono<ResponseEntity<ProductDto>> getProductByName(@PathVariable String name) {
+        return productService.getProductByName(name).map(ResponseEntity::ok);
+    }
+    
+    @GetMapping("/category/{category}")
+    public Flux<ProductDto> getProductsByCategory(@PathVariable String category) {
+        return productService.getProductsByCategory(category);
+    }
+    
+    @GetMapping("/search")
+    public Flux<ProductDto> searchProducts(@RequestParam String name) {
+        return productService.searchProductsByName(name);
+    }
+}
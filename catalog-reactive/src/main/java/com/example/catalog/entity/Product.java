@@ -0,0 +1,39 @@
+package com.example.catalog.entity;
+
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import lombok.AllArgsConstructor;
+import org.springframework.data.annotation.Id;
+import org.springframework.data.relational.core.mapping.Column;
+import org.springframework.data.relational.core.mapping.Table;
+
+import java.math.BigDecimal;
+import java.time.LocalDateTime;
+
+// Read-only mapping of the products table owned by the backend's JPA entity
+@Table("products")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class Product {
+    
+    @Id
+    private Long id;
+    
+    private String name;
+    
+    private String description;
+    
+    private BigDecimal price;
+    
+    @Column("stock_quantity")
+    private Integer stockQuantity;
+    
+    private String category;
+    
+    @Column("created_at")
+    private LocalDateTime createdAt;
+    
+    @Column("updated_at")
+    private LocalDateTime updatedAt;
+}
@@ -0,0 +1,17 @@
+package com.example.catalog.repository;
+
+import com.example.catalog.entity.Product;
+import org.springframework.data.repository.reactive.ReactiveCrudRepository;
+import org.springframework.stereotype.Repository;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Repository
+public interface ProductRepository extends ReactiveCrudRepository<Product, Long> {
+    
+    Mono<Product> findByName(String name);
+    
+    Flux<Product> findByCategory(String category);
+    
+    Flux<Product> findByNameContainingIgnoreCase(String name);
+}
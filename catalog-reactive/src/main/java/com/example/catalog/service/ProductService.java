@@ -0,0 +1,56 @@
+package com.example.catalog.service;
+
+import com.example.catalog.dto.ProductDto;
+import com.example.catalog.entity.Product;
+import com.example.catalog.repository.ProductRepository;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+@Service
+@RequiredArgsConstructor
+public class ProductService {
+    
+    private final ProductRepository productRepository;
+    
+    public Flux<ProductDto> getAllProducts() {
+        return productRepository.findAll()
+                .map(this::convertToDto);
+    }
+    
+    public Mono<ProductDto> getProductById(Long id) {
+        return productRepository.findById(id)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Product not found with id: " + id)))
+                .map(this::convertToDto);
+    }
+    
+    public Mono<ProductDto> getProductByName(String name) {
+        return productRepository.findByName(name)
+                .switchIfEmpty(Mono.error(() -> new RuntimeException("Product not found with name: " + name)))
+                .map(this::convertToDto);
+    }
+    
+    public Flux<ProductDto> getProductsByCategory(String category) {
+        return productRepository.findByCategory(category)
+                .map(this::convertToDto);
+    }
+    
+    public Flux<ProductDto> searchProductsByName(String name) {
+        return productRepository.findByNameContainingIgnoreCase(name)
+                .map(this::convertToDto);
+    }
+    
+    private ProductDto convertToDto(Product product) {
+        return new ProductDto(
+                product.getId(),
+                product.getName(),
+                product.getDescription(),
+                product.getPrice(),
+                product.getStockQuantity(),
+                product.getCategory(),
+                product.getCreatedAt(),
+                product.getUpdatedAt()
+        );
+    }
+}
@@ -0,0 +1,13 @@
+package com.example.catalog;
+
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.test.context.SpringBootTest;
+
+@SpringBootTest
+class CatalogReactiveApplicationTests {
+
+	@Test
+	void contextLoads() {
+	}
+
+}
@@ -35,6 +35,7 @@ export class ProductsComponent implements OnInit {
   displayedColumns: string[] = ['id', 'name', 'description', 'price', 'stockQuantity', 'category', 'actions'];
   searchTerm: string = '';
   selectedCategory: string = '';
+  categoryCounts: { [category: string]: number } = {};
 
   constructor(
     private productService: ProductService,
@@ -56,6 +57,19 @@ export class ProductsComponent implements OnInit {
         this.snackBar.open('Error loading products', 'Close', { duration: 3000 });
       }
     });
+    this.loadCategories();
+  }
+
+  // Category options come from the server's facet counts, not from the products currently shown
+  loadCategories(): void {
+    this.productService.browseProducts({ size: 1 }).subscribe({
+      next: (result) => {
+        this.categoryCounts = result.categoryCounts;
+      },
+      error: (error) => {
+        console.error('Error loading categories:', error);
+      }
+    });
   }
 
   openProductDialog(product?: Product): void {
@@ -149,6 +163,6 @@ export class ProductsComponent implements OnInit {
   }
 
   getCategories(): string[] {
-    return [...new Set(this.products.map(p => p.category))];
+    return Object.keys(this.categoryCounts);
   }
 }
@@ -11,6 +11,11 @@ export interface Order {
   updatedAt?: string;
 }
 
+export interface OrderSearchHit {
+  order: Order;
+  score: number;
+}
+
 export interface OrderItem {
   id?: number;
   productId: number;
@@ -8,3 +8,28 @@ export interface Product {
   createdAt?: string;
   updatedAt?: string;
 }
+
+export interface PriceBucket {
+  minPrice: number;
+  maxPrice: number | null;
+  count: number;
+}
+
+export interface ProductBrowseResult {
+  products: Product[];
+  totalCount: number;
+  page: number;
+  size: number;
+  categoryCounts: { [category: string]: number };
+  priceBuckets: PriceBucket[];
+  inStockCount: number;
+}
+
+export interface ProductBrowseFilter {
+  category?: string[];
+  minPrice?: number;
+  maxPrice?: number;
+  inStock?: boolean;
+  page?: number;
+  size?: number;
+}
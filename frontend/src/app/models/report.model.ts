@@ -0,0 +1,26 @@
+import { OrderStatus } from './order.model';
+
+export interface ReportRequest {
+  from?: string;
+  to?: string;
+  statuses?: OrderStatus[];
+}
+
+export interface ReportJob {
+  id: string;
+  requestedBy: string;
+  from?: string;
+  to?: string;
+  statuses: OrderStatus[];
+  status: 'QUEUED' | 'RUNNING' | 'COMPLETED' | 'FAILED' | 'CANCELLED';
+  progress: number;
+  totalOrders: number;
+  ordersWritten: number;
+  rowsWritten: number;
+  fileSize: number;
+  downloadUrl?: string;
+  error?: string;
+  createdAt: string;
+  startedAt?: string;
+  finishedAt?: string;
+}
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Order, OrderStatus } from '../models/order.model';
+import { Order, OrderSearchHit, OrderStatus } from '../models/order.model';
 
 @Injectable({
   providedIn: 'root'
@@ -35,6 +35,11 @@ export class OrderService {
     return this.http.get<Order[]>(`${this.apiUrl}/status/${status}`);
   }
 
+  searchOrders(query: string, limit = 20): Observable<OrderSearchHit[]> {
+    const params = new HttpParams().set('q', query).set('limit', limit);
+    return this.http.get<OrderSearchHit[]>(`${this.apiUrl}/search`, { params });
+  }
+
   getOrdersByCustomerEmail(email: string): Observable<Order[]> {
     return this.http.get<Order[]>(`${this.apiUrl}/customer/${email}`);
   }
@@ -1,7 +1,7 @@
 import { Injectable } from '@angular/core';
-import { HttpClient } from '@angular/common/http';
+import { HttpClient, HttpParams } from '@angular/common/http';
 import { Observable } from 'rxjs';
-import { Product } from '../models/product.model';
+import { Product, ProductBrowseFilter, ProductBrowseResult } from '../models/product.model';
 
 @Injectable({
   providedIn: 'root'
@@ -19,6 +19,13 @@ export class ProductService {
     return this.http.get<Product>(`${this.apiUrl}/${id}`);
   }
 
+  // One request for many products, e.g. the lines of a cart; fields limits the columns returned (id is always included)
+  getProductsByIds(ids: number[], fields?: (keyof Product)[]): Observable<Partial<Product>[]> {
+    let params = new HttpParams().set('ids', ids.join(','));
+    if (fields && fields.length) params = params.set('fields', fields.join(','));
+    return this.http.get<Partial<Product>[]>(this.apiUrl, { params });
+  }
+
   createProduct(product: Product): Observable<Product> {
     return this.http.post<Product>(this.apiUrl, product);
   }
@@ -38,4 +45,15 @@ export class ProductService {
   searchProducts(name: string): Observable<Product[]> {
     return this.http.get<Product[]>(`${this.apiUrl}/search?name=${name}`);
   }
+
+  browseProducts(filter: ProductBrowseFilter = {}): Observable<ProductBrowseResult> {
+    let params = new HttpParams();
+    (filter.category || []).forEach(category => params = params.append('category', category));
+    if (filter.minPrice != null) params = params.set('minPrice', filter.minPrice);
+    if (filter.maxPrice != null) params = params.set('maxPrice', filter.maxPrice);
+    if (filter.inStock) params = params.set('inStock', true);
+    if (filter.page != null) params = params.set('page', filter.page);
+    if (filter.size != null) params = params.set('size', filter.size);
+    return this.http.get<ProductBrowseResult>(`${this.apiUrl}/browse`, { params });
+  }
 }
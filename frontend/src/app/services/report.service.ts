@@ -0,0 +1,33 @@
+import { Injectable } from '@angular/core';
+import { HttpClient } from '@angular/common/http';
+import { Observable } from 'rxjs';
+import { ReportJob, ReportRequest } from '../models/report.model';
+
+@Injectable({
+  providedIn: 'root'
+})
+export class ReportService {
+  private apiUrl = 'http://localhost:8080/api/reports';
+
+  constructor(private http: HttpClient) { }
+
+  submitOrderReport(request: ReportRequest): Observable<ReportJob> {
+    return this.http.post<ReportJob>(`${this.apiUrl}/orders`, request);
+  }
+
+  getReports(): Observable<ReportJob[]> {
+    return this.http.get<ReportJob[]>(this.apiUrl);
+  }
+
+  getReport(id: string): Observable<ReportJob> {
+    return this.http.get<ReportJob>(`${this.apiUrl}/${id}`);
+  }
+
+  downloadReport(id: string): Observable<Blob> {
+    return this.http.get(`${this.apiUrl}/${id}/download`, { responseType: 'blob' });
+  }
+
+  deleteReport(id: string): Observable<void> {
+    return this.http.delete<void>(`${this.apiUrl}/${id}`);
+  }
+}
@@ -0,0 +1,66 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Product and order ids the scenarios pick from; products are loaded once, orders are recorded as they are created
+public class CatalogFixtures {
+
+    private static final int ORDER_ID_CAPACITY = 4096;
+
+    private final List<ObjectNode> products;
+    private final List<String> categories;
+    private final AtomicLongArray orderIds = new AtomicLongArray(ORDER_ID_CAPACITY);
+    private final AtomicInteger orderCount = new AtomicInteger();
+
+    public CatalogFixtures(JsonNode productList) {
+        List<ObjectNode> loaded = new ArrayList<>();
+        List<String> loadedCategories = new ArrayList<>();
+        for (JsonNode product : productList) {
+            loaded.add((ObjectNode) product);
+            String category = product.path("category").asText();
+            if (!loadedCategories.contains(category)) {
+                loadedCategories.add(category);
+            }
+        }
+        if (loaded.isEmpty()) {
+            throw new IllegalStateException("The backend returned no products to run against");
+        }
+        this.products = List.copyOf(loaded);
+        this.categories = List.copyOf(loadedCategories);
+    }
+
+    public ObjectNode randomProduct(Random random) {
+        return products.get(random.nextInt(products.size()));
+    }
+
+    public String randomCategory(Random random) {
+        return categories.get(random.nextInt(categories.size()));
+    }
+
+    public String randomSearchTerm(Random random) {
+        String name = randomProduct(random).path("name").asText();
+        return name.substring(0, Math.min(name.length(), 3 + random.nextInt(3)));
+    }
+
+    public void recordOrder(long orderId) {
+        int index = orderCount.getAndIncrement();
+        orderIds.set(index % ORDER_ID_CAPACITY, orderId);
+    }
+
+    // Returns -1 until at least one order has been created
+    public long randomOrderId(Random random) {
+        int count = Math.min(orderCount.get(), ORDER_ID_CAPACITY);
+        if (count == 0) {
+            return -1;
+        }
+        long orderId = orderIds.get(random.nextInt(count));
+        return orderId == 0 ? -1 : orderId;
+    }
+}
@@ -0,0 +1,66 @@
+package com.example.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+
+// Growable array of latencies in microseconds; one instance per worker and operation, merged at the end
+public class LatencySamples {
+
+    private long[] values = new long[1024];
+    private int size;
+    private long errors;
+    // Errors that got a response, by HTTP status; the rest failed without one (timeouts, refused connections)
+    private final Map<Integer, Long> errorStatuses = new TreeMap<>();
+
+    public void record(long micros) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size++] = micros;
+    }
+
+    // status is 0 when the request failed without a response
+    public void recordError(int status) {
+        errors++;
+        if (status > 0) {
+            errorStatuses.merge(status, 1L, Long::sum);
+        }
+    }
+
+    public void addAll(LatencySamples other) {
+        if (size + other.size > values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, size + other.size));
+        }
+        System.arraycopy(other.values, 0, values, size, other.size);
+        size += other.size;
+        errors += other.errors;
+        other.errorStatuses.forEach((status, count) -> errorStatuses.merge(status, count, Long::sum));
+    }
+
+    public long count() {
+        return size;
+    }
+
+    public long errors() {
+        return errors;
+    }
+
+    public Map<Integer, Long> errorStatuses() {
+        return errorStatuses;
+    }
+
+    public long nonSuccessResponses() {
+        return errorStatuses.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    // Sorts in place; call only after all samples are merged
+    public long percentile(double percentile) {
+        if (size == 0) {
+            return 0;
+        }
+        Arrays.sort(values, 0, size);
+        int index = (int) Math.ceil(percentile / 100.0 * size) - 1;
+        return values[Math.max(0, Math.min(index, size - 1))];
+    }
+}
@@ -0,0 +1,92 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+
+import java.io.IOException;
+import java.io.PrintStream;
+import java.nio.file.Path;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+public class LoadReport {
+
+    private static final double[] PERCENTILES = {50, 90, 99, 99.9};
+
+    private final LoadTestOptions options;
+    private final Map<String, LatencySamples> samplesByOperation;
+    private final LatencySamples overall = new LatencySamples();
+
+    public LoadReport(LoadTestOptions options, Map<String, LatencySamples> samplesByOperation) {
+        this.options = options;
+        this.samplesByOperation = samplesByOperation;
+        samplesByOperation.values().forEach(overall::addAll);
+    }
+
+    public void print(PrintStream out) {
+        out.printf("%n%-32s %9s %7s %7s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "errors", "non-2xx", "req/s", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms");
+        samplesByOperation.forEach((name, samples) -> printRow(out, name, samples));
+        printRow(out, "TOTAL", overall);
+        if (!overall.errorStatuses().isEmpty()) {
+            out.printf("%nnon-2xx responses by status: %s%n", overall.errorStatuses());
+        }
+        out.printf("%n%s concurrency=%d duration=%ds scenario=%s mix=%s%n",
+                options.baseUrl(), options.concurrency(), options.duration().toSeconds(), options.scenario(), options.roleMix());
+    }
+
+    public void write(Path file) throws IOException {
+        Map<String, Object> operations = new LinkedHashMap<>();
+        samplesByOperation.forEach((name, samples) -> operations.put(name, summarize(samples)));
+
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("timestamp", Instant.now().toString());
+        result.put("baseUrl", options.baseUrl());
+        result.put("concurrency", options.concurrency());
+        result.put("durationSeconds", options.duration().toSeconds());
+        result.put("scenario", options.scenario());
+        result.put("mix", options.roleMix());
+        result.put("seed", options.seed());
+        result.put("total", summarize(overall));
+        result.put("operations", operations);
+
+        new ObjectMapper().enable(SerializationFeature.INDENT_OUTPUT).writeValue(file.toFile(), result);
+    }
+
+    private void printRow(PrintStream out, String name, LatencySamples samples) {
+        List<Object> row = new ArrayList<>(List.of(name, samples.count(), samples.errors(), samples.nonSuccessResponses(),
+                throughput(samples)));
+        for (double percentile : PERCENTILES) {
+            row.add(millis(samples.percentile(percentile)));
+        }
+        row.add(millis(samples.percentile(100)));
+        out.printf("%-32s %9d %7d %7d %9.1f %9.2f %9.2f %9.2f %9.2f %9.2f%n", row.toArray());
+    }
+
+    private Map<String, Object> summarize(LatencySamples samples) {
+        Map<String, Object> summary = new LinkedHashMap<>();
+        summary.put("requests", samples.count());
+        summary.put("errors", samples.errors());
+        Map<String, Long> errorStatuses = new LinkedHashMap<>();
+        samples.errorStatuses().forEach((status, count) -> errorStatuses.put(String.valueOf(status), count));
+        summary.put("nonSuccessResponses", errorStatuses);
+        summary.put("throughputPerSecond", throughput(samples));
+        for (double percentile : PERCENTILES) {
+            summary.put("p" + (percentile % 1 == 0 ? String.valueOf((int) percentile) : String.valueOf(percentile)) + "Millis",
+                    millis(samples.percentile(percentile)));
+        }
+        summary.put("maxMillis", millis(samples.percentile(100)));
+        return summary;
+    }
+
+    private double throughput(LatencySamples samples) {
+        return samples.count() / (double) options.duration().toSeconds();
+    }
+
+    private static double millis(long micros) {
+        return micros / 1000.0;
+    }
+}
@@ -0,0 +1,139 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.TreeMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+// Closed-loop driver: each virtual user sends its next request as soon as the previous one completes
+public class LoadRunner {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    private final LoadTestOptions options;
+    private final Map<String, List<RealmUser>> usersByRole;
+    private final Map<RealmUser, String> tokens;
+    private final HttpClient httpClient = HttpClient.newBuilder()
+            .connectTimeout(Duration.ofSeconds(5))
+            .executor(Executors.newVirtualThreadPerTaskExecutor())
+            .build();
+
+    public LoadRunner(LoadTestOptions options, Map<String, List<RealmUser>> usersByRole, Map<RealmUser, String> tokens) {
+        this.options = options;
+        this.usersByRole = usersByRole;
+        this.tokens = tokens;
+    }
+
+    public CatalogFixtures loadFixtures(RealmUser reader) throws Exception {
+        HttpResponse<String> response = httpClient.send(
+                request(reader, Operation.PlannedRequest.get("/api/products")),
+                HttpResponse.BodyHandlers.ofString());
+        if (response.statusCode() != 200) {
+            throw new IllegalStateException("Loading products as " + reader.username()
+                    + " failed with HTTP " + response.statusCode());
+        }
+        return new CatalogFixtures(MAPPER.readTree(response.body()));
+    }
+
+    public LoadReport run(CatalogFixtures fixtures) throws Exception {
+        long startNanos = System.nanoTime();
+        long recordFromNanos = startNanos + options.warmup().toNanos();
+        long endNanos = recordFromNanos + options.duration().toNanos();
+
+        List<Future<Map<String, LatencySamples>>> workers = new ArrayList<>();
+        try (ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor()) {
+            for (int i = 0; i < options.concurrency(); i++) {
+                Random random = new Random(options.seed() + i);
+                workers.add(executor.submit(() -> runWorker(fixtures, random, recordFromNanos, endNanos)));
+            }
+        }
+
+        Map<String, LatencySamples> merged = new TreeMap<>();
+        for (Future<Map<String, LatencySamples>> worker : workers) {
+            worker.get().forEach((name, samples) ->
+                    merged.computeIfAbsent(name, key -> new LatencySamples()).addAll(samples));
+        }
+        return new LoadReport(options, merged);
+    }
+
+    private Map<String, LatencySamples> runWorker(CatalogFixtures fixtures, Random random,
+                                                  long recordFromNanos, long endNanos) {
+        Map<String, LatencySamples> samples = new TreeMap<>();
+        List<String> roles = new ArrayList<>(options.roleMix().keySet());
+        int totalWeight = options.roleMix().values().stream().mapToInt(Integer::intValue).sum();
+
+        while (System.nanoTime() < endNanos) {
+            String role = pickRole(roles, totalWeight, random);
+            List<RealmUser> users = usersByRole.get(role);
+            RealmUser user = users.get(random.nextInt(users.size()));
+            Operation operation = TrafficMix.pick(TrafficMix.operationsFor(options.scenario(), role), random);
+            Operation.PlannedRequest planned = operation.requestFactory().create(user, fixtures, random);
+            if (planned == null) {
+                continue;
+            }
+
+            long sentNanos = System.nanoTime();
+            boolean success;
+            int status = 0;
+            try {
+                HttpResponse<String> response = httpClient.send(request(user, planned), HttpResponse.BodyHandlers.ofString());
+                status = response.statusCode();
+                success = status / 100 == 2;
+                if (success && operation.name().equals("orders.create")) {
+                    fixtures.recordOrder(MAPPER.readTree(response.body()).path("id").asLong());
+                }
+            } catch (Exception e) {
+                success = false;
+            }
+            long completedNanos = System.nanoTime();
+
+            if (sentNanos >= recordFromNanos && completedNanos <= endNanos) {
+                LatencySamples operationSamples = samples.computeIfAbsent(role + " " + operation.name(),
+                        key -> new LatencySamples());
+                if (success) {
+                    operationSamples.record((completedNanos - sentNanos) / 1_000);
+                } else {
+                    operationSamples.recordError(status / 100 == 2 ? 0 : status);
+                }
+            }
+        }
+        return samples;
+    }
+
+    private String pickRole(List<String> roles, int totalWeight, Random random) {
+        int roll = random.nextInt(totalWeight);
+        for (String role : roles) {
+            roll -= options.roleMix().get(role);
+            if (roll < 0) {
+                return role;
+            }
+        }
+        return roles.get(roles.size() - 1);
+    }
+
+    private HttpRequest request(RealmUser user, Operation.PlannedRequest planned) {
+        HttpRequest.Builder builder = HttpRequest.newBuilder(URI.create(options.baseUrl() + planned.path()))
+                .timeout(Duration.ofSeconds(30))
+                .header("Authorization", "Bearer " + tokens.get(user))
+                .header("Accept", "application/json");
+        if (planned.jsonBody() != null) {
+            builder.header("Content-Type", "application/json")
+                    .method(planned.method(), HttpRequest.BodyPublishers.ofString(planned.jsonBody()));
+        } else {
+            builder.method(planned.method(), HttpRequest.BodyPublishers.noBody());
+        }
+        return builder.build();
+    }
+}
@@ -0,0 +1,65 @@
+package com.example.loadtest;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+
+public class LoadTestApplication {
+
+    public static void main(String[] args) throws Exception {
+        LoadTestOptions options;
+        try {
+            options = LoadTestOptions.parse(args);
+        } catch (IllegalArgumentException e) {
+            System.err.println(e.getMessage());
+            System.err.println(LoadTestOptions.USAGE);
+            System.exit(2);
+            return;
+        }
+
+        List<RealmUser> users = RealmUser.load(options.realmConfig());
+        Map<String, List<RealmUser>> usersByRole = new LinkedHashMap<>();
+        for (String role : options.roleMix().keySet()) {
+            if (!TrafficMix.OPERATIONS_BY_ROLE.containsKey(role)) {
+                throw new IllegalArgumentException("No traffic defined for role: " + role);
+            }
+            List<RealmUser> withRole = users.stream().filter(user -> user.hasRole(role)).toList();
+            if (withRole.isEmpty()) {
+                throw new IllegalArgumentException("No user in " + options.realmConfig() + " has role: " + role);
+            }
+            usersByRole.put(role, withRole);
+        }
+
+        // Tokens outlive the run so no request fails on expiry
+        Duration tokenLifetime = options.warmup().plus(options.duration()).plusMinutes(10);
+        TokenMinter tokenMinter = new TokenMinter(
+                "http://localhost:" + options.stubPort() + "/realms/" + options.realm(), tokenLifetime);
+        Map<RealmUser, String> tokens = users.stream()
+                .collect(Collectors.toMap(user -> user, user -> {
+                    try {
+                        return tokenMinter.mint(user);
+                    } catch (Exception e) {
+                        throw new IllegalStateException("Could not sign token for " + user.username(), e);
+                    }
+                }));
+
+        try (StubKeycloakServer stub = new StubKeycloakServer(options.stubPort(), options.realm(), tokenMinter)) {
+            stub.start();
+            System.out.printf("Stub Keycloak on port %d, driving %s with %d virtual users (%ds warm-up, %ds measured)%n",
+                    options.stubPort(), options.baseUrl(), options.concurrency(),
+                    options.warmup().toSeconds(), options.duration().toSeconds());
+
+            LoadRunner runner = new LoadRunner(options, usersByRole, tokens);
+            RealmUser reader = usersByRole.values().iterator().next().get(0);
+            LoadReport report = runner.run(runner.loadFixtures(reader));
+
+            report.print(System.out);
+            if (options.output() != null) {
+                report.write(options.output());
+                System.out.println("Results written to " + options.output());
+            }
+        }
+    }
+}
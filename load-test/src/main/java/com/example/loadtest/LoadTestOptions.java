@@ -0,0 +1,87 @@
+package com.example.loadtest;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+
+public record LoadTestOptions(
+        String baseUrl,
+        int stubPort,
+        String realm,
+        Path realmConfig,
+        int concurrency,
+        Duration warmup,
+        Duration duration,
+        Map<String, Integer> roleMix,
+        String scenario,
+        long seed,
+        Path output) {
+
+    private static final Set<String> KNOWN_OPTIONS = Set.of(
+            "base-url", "stub-port", "realm", "realm-config", "concurrency", "warmup", "duration", "mix", "scenario", "seed", "out");
+
+    public static final String USAGE = """
+            Usage: mvn -q exec:java -Dexec.args="[options]"
+              --base-url <url>        backend under test (default http://localhost:8080)
+              --stub-port <port>      port for the stub Keycloak (default 8180, what the backend expects)
+              --realm <name>          realm name (default ecommerce-demo)
+              --realm-config <path>   realm export to take users and roles from
+                                      (default ../keycloak-setup/realm-config.json)
+              --concurrency <n>       concurrent virtual users (default 50)
+              --warmup <seconds>      unrecorded warm-up (default 10)
+              --duration <seconds>    recorded duration (default 60)
+              --mix <role=weight,..>  traffic mix by role (default customer=70,employee=20,manager=10)
+              --scenario <name>       mixed: each role's usual requests (default)
+                                      catalog: product reads only, for comparing catalog servers
+              --seed <n>              random seed for request selection (default 42)
+              --out <file>            also write the results as JSON, for comparing builds
+            """;
+
+    public static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new LinkedHashMap<>();
+        for (int i = 0; i < args.length; i++) {
+            if (!args[i].startsWith("--") || i + 1 >= args.length) {
+                throw new IllegalArgumentException("Invalid argument: " + args[i]);
+            }
+            String name = args[i].substring(2);
+            if (!KNOWN_OPTIONS.contains(name)) {
+                throw new IllegalArgumentException("Unknown option: --" + name);
+            }
+            values.put(name, args[++i]);
+        }
+
+        return new LoadTestOptions(
+                values.getOrDefault("base-url", "http://localhost:8080"),
+                Integer.parseInt(values.getOrDefault("stub-port", "8180")),
+                values.getOrDefault("realm", "ecommerce-demo"),
+                Path.of(values.getOrDefault("realm-config", "../keycloak-setup/realm-config.json")),
+                Integer.parseInt(values.getOrDefault("concurrency", "50")),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "10"))),
+                Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60"))),
+                parseMix(values.getOrDefault("mix", "customer=70,employee=20,manager=10")),
+                parseScenario(values.getOrDefault("scenario", "mixed")),
+                Long.parseLong(values.getOrDefault("seed", "42")),
+                values.containsKey("out") ? Path.of(values.get("out")) : null);
+    }
+
+    private static String parseScenario(String scenario) {
+        if (!TrafficMix.SCENARIOS.contains(scenario)) {
+            throw new IllegalArgumentException("Unknown scenario: " + scenario);
+        }
+        return scenario;
+    }
+
+    private static Map<String, Integer> parseMix(String mix) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        for (String entry : mix.split(",")) {
+            String[] parts = entry.split("=");
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Invalid mix entry: " + entry);
+            }
+            weights.put(parts[0].trim(), Integer.parseInt(parts[1].trim()));
+        }
+        return weights;
+    }
+}
@@ -0,0 +1,20 @@
+package com.example.loadtest;
+
+import java.util.Random;
+
+// One weighted request type in a role's traffic mix
+public record Operation(String name, int weight, RequestFactory requestFactory) {
+
+    @FunctionalInterface
+    public interface RequestFactory {
+        // Returns null when the request cannot be built yet, e.g. no order exists to look up
+        PlannedRequest create(RealmUser user, CatalogFixtures fixtures, Random random);
+    }
+
+    public record PlannedRequest(String method, String path, String jsonBody) {
+
+        public static PlannedRequest get(String path) {
+            return new PlannedRequest("GET", path, null);
+        }
+    }
+}
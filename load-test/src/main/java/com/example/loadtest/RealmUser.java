@@ -0,0 +1,33 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+public record RealmUser(String username, String email, String firstName, String lastName, List<String> realmRoles) {
+
+    public boolean hasRole(String role) {
+        return realmRoles.contains(role);
+    }
+
+    // Users and their realm roles as defined in keycloak-setup/realm-config.json
+    public static List<RealmUser> load(Path realmConfig) throws IOException {
+        JsonNode root = new ObjectMapper().readTree(realmConfig.toFile());
+        List<RealmUser> users = new ArrayList<>();
+        for (JsonNode user : root.path("users")) {
+            List<String> roles = new ArrayList<>();
+            user.path("realmRoles").forEach(role -> roles.add(role.asText()));
+            users.add(new RealmUser(
+                    user.path("username").asText(),
+                    user.path("email").asText(),
+                    user.path("firstName").asText(),
+                    user.path("lastName").asText(),
+                    List.copyOf(roles)));
+        }
+        return users;
+    }
+}
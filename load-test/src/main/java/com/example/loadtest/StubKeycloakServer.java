@@ -0,0 +1,55 @@
+package com.example.loadtest;
+
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+
+// Serves the discovery document and JWKS the backend needs to validate minted tokens
+public class StubKeycloakServer implements AutoCloseable {
+
+    private final HttpServer server;
+
+    public StubKeycloakServer(int port, String realm, TokenMinter tokenMinter) throws IOException {
+        String baseUrl = "http://localhost:" + port + "/realms/" + realm;
+        String openIdConfiguration = """
+                {"issuer":"%1$s",\
+                "authorization_endpoint":"%1$s/protocol/openid-connect/auth",\
+                "token_endpoint":"%1$s/protocol/openid-connect/token",\
+                "userinfo_endpoint":"%1$s/protocol/openid-connect/userinfo",\
+                "jwks_uri":"%1$s/protocol/openid-connect/certs",\
+                "response_types_supported":["code"],\
+                "subject_types_supported":["public"],\
+                "id_token_signing_alg_values_supported":["RS256"]}""".formatted(baseUrl);
+        String jwkSet = tokenMinter.jwkSetJson();
+
+        server = HttpServer.create(new InetSocketAddress(port), 0);
+        server.setExecutor(Executors.newVirtualThreadPerTaskExecutor());
+        server.createContext("/realms/" + realm + "/.well-known/openid-configuration",
+                exchange -> respond(exchange, openIdConfiguration));
+        server.createContext("/realms/" + realm + "/protocol/openid-connect/certs",
+                exchange -> respond(exchange, jwkSet));
+    }
+
+    public void start() {
+        server.start();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+
+    private static void respond(HttpExchange exchange, String body) throws IOException {
+        byte[] bytes = body.getBytes(StandardCharsets.UTF_8);
+        exchange.getResponseHeaders().set("Content-Type", "application/json");
+        exchange.sendResponseHeaders(200, bytes.length);
+        try (OutputStream out = exchange.getResponseBody()) {
+            out.write(bytes);
+        }
+    }
+}
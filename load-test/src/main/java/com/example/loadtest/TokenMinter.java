@@ -0,0 +1,68 @@
+package com.example.loadtest;
+
+import com.nimbusds.jose.JOSEException;
+import com.nimbusds.jose.JWSAlgorithm;
+import com.nimbusds.jose.JWSHeader;
+import com.nimbusds.jose.crypto.RSASSASigner;
+import com.nimbusds.jose.jwk.JWKSet;
+import com.nimbusds.jose.jwk.KeyUse;
+import com.nimbusds.jose.jwk.RSAKey;
+import com.nimbusds.jose.jwk.gen.RSAKeyGenerator;
+import com.nimbusds.jwt.JWTClaimsSet;
+import com.nimbusds.jwt.SignedJWT;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Date;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+
+// Signs Keycloak-shaped access tokens with a key generated for this run
+public class TokenMinter {
+
+    private final RSAKey signingKey;
+    private final String issuer;
+    private final Duration lifetime;
+
+    public TokenMinter(String issuer, Duration lifetime) throws JOSEException {
+        this.signingKey = new RSAKeyGenerator(2048)
+                .keyID(UUID.randomUUID().toString())
+                .keyUse(KeyUse.SIGNATURE)
+                .algorithm(JWSAlgorithm.RS256)
+                .generate();
+        this.issuer = issuer;
+        this.lifetime = lifetime;
+    }
+
+    public String jwkSetJson() {
+        return new JWKSet(signingKey.toPublicJWK()).toString();
+    }
+
+    public String mint(RealmUser user) throws JOSEException {
+        Instant now = Instant.now();
+        JWTClaimsSet claims = new JWTClaimsSet.Builder()
+                .issuer(issuer)
+                .subject(UUID.nameUUIDFromBytes(user.username().getBytes()).toString())
+                .audience("account")
+                .issueTime(Date.from(now))
+                .expirationTime(Date.from(now.plus(lifetime)))
+                .jwtID(UUID.randomUUID().toString())
+                .claim("typ", "Bearer")
+                .claim("azp", "ecommerce-frontend")
+                .claim("preferred_username", user.username())
+                .claim("email", user.email())
+                .claim("given_name", user.firstName())
+                .claim("family_name", user.lastName())
+                .claim("realm_access", Map.of("roles", user.realmRoles()))
+                .claim("groups", List.of())
+                .claim("scope", "openid profile email")
+                .build();
+
+        SignedJWT jwt = new SignedJWT(
+                new JWSHeader.Builder(JWSAlgorithm.RS256).keyID(signingKey.getKeyID()).build(),
+                claims);
+        jwt.sign(new RSASSASigner(signingKey));
+        return jwt.serialize();
+    }
+}
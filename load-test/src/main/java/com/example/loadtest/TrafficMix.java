@@ -0,0 +1,137 @@
+package com.example.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+// Request mixes per role, shaped after what each role does in the frontend
+public final class TrafficMix {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+    private static final String[] ORDER_STATUSES = {"PENDING", "CONFIRMED", "SHIPPED", "DELIVERED", "CANCELLED"};
+
+    private static final Operation LIST_PRODUCTS = new Operation("products.list", 1,
+            (user, fixtures, random) -> Operation.PlannedRequest.get("/api/products"));
+    private static final Operation GET_PRODUCT = new Operation("products.get", 1,
+            (user, fixtures, random) -> Operation.PlannedRequest.get(
+                    "/api/products/" + fixtures.randomProduct(random).path("id").asLong()));
+    private static final Operation PRODUCTS_BY_CATEGORY = new Operation("products.category", 1,
+            (user, fixtures, random) -> Operation.PlannedRequest.get(
+                    "/api/products/category/" + encode(fixtures.randomCategory(random))));
+    private static final Operation SEARCH_PRODUCTS = new Operation("products.search", 1,
+            (user, fixtures, random) -> Operation.PlannedRequest.get(
+                    "/api/products/search?name=" + encode(fixtures.randomSearchTerm(random))));
+    private static final Operation UPDATE_PRODUCT = new Operation("products.update", 1,
+            TrafficMix::updateProduct);
+    private static final Operation CREATE_ORDER = new Operation("orders.create", 1,
+            TrafficMix::createOrder);
+    private static final Operation LIST_ORDERS = new Operation("orders.list", 1,
+            (user, fixtures, random) -> Operation.PlannedRequest.get("/api/orders"));
+    private static final Operation GET_ORDER = new Operation("orders.get", 1,
+            (user, fixtures, random) -> {
+                long orderId = fixtures.randomOrderId(random);
+                return orderId < 0 ? null : Operation.PlannedRequest.get("/api/orders/" + orderId);
+            });
+    private static final Operation ORDERS_BY_STATUS = new Operation("orders.status", 1,
+            (user, fixtures, random) -> Operation.PlannedRequest.get(
+                    "/api/orders/status/" + ORDER_STATUSES[random.nextInt(ORDER_STATUSES.length)]));
+    private static final Operation UPDATE_ORDER_STATUS = new Operation("orders.updateStatus", 1,
+            (user, fixtures, random) -> {
+                long orderId = fixtures.randomOrderId(random);
+                return orderId < 0 ? null : new Operation.PlannedRequest("PUT",
+                        "/api/orders/" + orderId + "/status?status=" + ORDER_STATUSES[1 + random.nextInt(3)], null);
+            });
+
+    public static final Map<String, List<Operation>> OPERATIONS_BY_ROLE = Map.of(
+            "customer", List.of(
+                    weighted(LIST_PRODUCTS, 40),
+                    weighted(GET_PRODUCT, 25),
+                    weighted(PRODUCTS_BY_CATEGORY, 15),
+                    weighted(SEARCH_PRODUCTS, 10),
+                    weighted(CREATE_ORDER, 10)),
+            "employee", List.of(
+                    weighted(LIST_ORDERS, 20),
+                    weighted(GET_ORDER, 25),
+                    weighted(ORDERS_BY_STATUS, 20),
+                    weighted(UPDATE_ORDER_STATUS, 10),
+                    weighted(LIST_PRODUCTS, 10),
+                    weighted(GET_PRODUCT, 10),
+                    weighted(CREATE_ORDER, 5)),
+            "manager", List.of(
+                    weighted(LIST_ORDERS, 25),
+                    weighted(ORDERS_BY_STATUS, 20),
+                    weighted(UPDATE_ORDER_STATUS, 10),
+                    weighted(LIST_PRODUCTS, 25),
+                    weighted(GET_PRODUCT, 15),
+                    weighted(UPDATE_PRODUCT, 5)),
+            "admin", List.of(
+                    weighted(LIST_ORDERS, 30),
+                    weighted(LIST_PRODUCTS, 30),
+                    weighted(GET_ORDER, 20),
+                    weighted(UPDATE_PRODUCT, 20)));
+
+    // Read-only catalog traffic, identical for every role; writes are left out so the
+    // servlet backend and the reactive catalog service can be driven with the same requests
+    private static final List<Operation> CATALOG_READS = List.of(
+            weighted(LIST_PRODUCTS, 40),
+            weighted(GET_PRODUCT, 30),
+            weighted(PRODUCTS_BY_CATEGORY, 20),
+            weighted(SEARCH_PRODUCTS, 10));
+
+    public static final List<String> SCENARIOS = List.of("mixed", "catalog");
+
+    private TrafficMix() {
+    }
+
+    public static List<Operation> operationsFor(String scenario, String role) {
+        return scenario.equals("catalog") ? CATALOG_READS : OPERATIONS_BY_ROLE.get(role);
+    }
+
+    public static Operation pick(List<Operation> operations, Random random) {
+        int total = operations.stream().mapToInt(Operation::weight).sum();
+        int roll = random.nextInt(total);
+        for (Operation operation : operations) {
+            roll -= operation.weight();
+            if (roll < 0) {
+                return operation;
+            }
+        }
+        throw new IllegalStateException("Weights changed while picking");
+    }
+
+    private static Operation weighted(Operation operation, int weight) {
+        return new Operation(operation.name(), weight, operation.requestFactory());
+    }
+
+    private static Operation.PlannedRequest createOrder(RealmUser user, CatalogFixtures fixtures, Random random) {
+        ObjectNode order = MAPPER.createObjectNode()
+                .put("customerName", user.firstName() + " " + user.lastName())
+                .put("customerEmail", user.email())
+                .put("customerPhone", "+1-555-" + (1000 + random.nextInt(9000)))
+                .put("shippingAddress", (1 + random.nextInt(999)) + " Load Test Street");
+        ArrayNode items = order.putArray("orderItems");
+        int lines = 1 + random.nextInt(3);
+        for (int i = 0; i < lines; i++) {
+            items.addObject()
+                    .put("productId", fixtures.randomProduct(random).path("id").asLong())
+                    .put("quantity", 1 + random.nextInt(3));
+        }
+        return new Operation.PlannedRequest("POST", "/api/orders", order.toString());
+    }
+
+    private static Operation.PlannedRequest updateProduct(RealmUser user, CatalogFixtures fixtures, Random random) {
+        ObjectNode product = fixtures.randomProduct(random).deepCopy();
+        product.put("stockQuantity", 10 + random.nextInt(200));
+        return new Operation.PlannedRequest("PUT", "/api/products/" + product.path("id").asLong(), product.toString());
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8).replace("+", "%20");
+    }
+}